@@ -0,0 +1,118 @@
+package org.cstamas.vertx.orientdb.benchmarks;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import org.cstamas.vertx.orientdb.ConnectionOptions;
+import org.cstamas.vertx.orientdb.DocumentDatabase;
+import org.cstamas.vertx.orientdb.Manager;
+import org.cstamas.vertx.orientdb.ManagerOptions;
+
+/**
+ * Helpers to set up manager and database for benchmarks, and to block benchmark thread until async operation is done.
+ */
+final class BenchmarkSupport
+{
+  static final String ORIENT_HOME = "target/benchmarks";
+
+  private BenchmarkSupport() {
+    // nop
+  }
+
+  /**
+   * Creates and opens manager that does not start OrientDB server.
+   */
+  static Manager openManager(final Vertx vertx, final boolean useEventLoop, final boolean orderedExec)
+      throws Exception
+  {
+    Manager manager = Manager.create(vertx, ManagerOptions.fromJsonObject(
+        new JsonObject()
+            .put("orientHome", ORIENT_HOME)
+            .put("serverEnabled", false)
+            .put("useEventLoop", useEventLoop)
+            .put("orderedExec", orderedExec)
+    ));
+    BenchmarkSupport.<Void>await(manager::open);
+    return manager;
+  }
+
+  /**
+   * Creates (or opens existing) document database of given type, {@code memory} or {@code plocal}.
+   */
+  static DocumentDatabase openDatabase(final Manager manager,
+                                       final String type,
+                                       final int maxPartitionSize,
+                                       final int maxPoolSize)
+      throws Exception
+  {
+    return openDatabase(manager, type, maxPartitionSize, maxPoolSize, db -> {});
+  }
+
+  /**
+   * Creates (or opens existing) document database of given type, {@code memory} or {@code plocal}, invoking the
+   * handler to set up schema.
+   */
+  static DocumentDatabase openDatabase(final Manager manager,
+                                       final String type,
+                                       final int maxPartitionSize,
+                                       final int maxPoolSize,
+                                       final Handler<ODatabaseDocumentTx> handler)
+      throws Exception
+  {
+    String name = "benchmark-" + type;
+    ConnectionOptions.Builder builder;
+    if ("memory".equals(type)) {
+      builder = manager.memoryConnection(name);
+    }
+    else if ("plocal".equals(type)) {
+      builder = manager.plocalConnection(name);
+    }
+    else {
+      throw new IllegalArgumentException("Unsupported database type: " + type);
+    }
+    ConnectionOptions connectionOptions = builder
+        .setMaxPartitionSize(maxPartitionSize)
+        .setMaxPoolSize(maxPoolSize)
+        .build();
+    BenchmarkSupport.<Void>await(h -> manager.createDocumentInstance(connectionOptions, handler, h));
+    return BenchmarkSupport.<DocumentDatabase>await(h -> manager.documentInstance(name, h));
+  }
+
+  /**
+   * Closes manager and Vert.x.
+   */
+  static void close(final Vertx vertx, final Manager manager) throws Exception {
+    BenchmarkSupport.<Void>await(manager::close);
+    BenchmarkSupport.<Void>await(vertx::close);
+  }
+
+  /**
+   * Invokes async operation and blocks until it's result handler is invoked.
+   */
+  static <T> T await(final Consumer<Handler<AsyncResult<T>>> operation) throws Exception {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    operation.accept(complete(future, Function.identity()));
+    return future.get(1, TimeUnit.MINUTES);
+  }
+
+  /**
+   * Returns handler completing the future with mapped result.
+   */
+  static <T, R> Handler<AsyncResult<T>> complete(final CompletableFuture<R> future, final Function<T, R> mapper) {
+    return ar -> {
+      if (ar.succeeded()) {
+        future.complete(mapper.apply(ar.result()));
+      }
+      else {
+        future.completeExceptionally(ar.cause());
+      }
+    };
+  }
+}
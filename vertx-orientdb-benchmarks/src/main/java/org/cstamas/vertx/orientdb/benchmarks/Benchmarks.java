@@ -0,0 +1,27 @@
+package org.cstamas.vertx.orientdb.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark runner, accepting the usual JMH command line options, but always running with GC profiler, to report
+ * allocation rate ({@code gc.alloc.rate.norm} is bytes allocated per operation) and GC counts and times next to
+ * timings.
+ */
+public final class Benchmarks
+{
+  private Benchmarks() {
+    // nop
+  }
+
+  public static void main(final String[] args) throws Exception {
+    Options options = new OptionsBuilder()
+        .parent(new CommandLineOptions(args))
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(options).run();
+  }
+}
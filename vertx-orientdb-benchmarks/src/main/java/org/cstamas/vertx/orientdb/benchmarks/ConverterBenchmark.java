@@ -0,0 +1,85 @@
+package org.cstamas.vertx.orientdb.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.core.json.JsonObject;
+import org.cstamas.vertx.orientdb.DocumentConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Conversion of {@link ODocument} to {@link JsonObject} and back using {@link DocumentConverter}, compared to the
+ * string round-trip through {@link ODocument#toJSON()} and {@link ODocument#fromJSON(String)}. The document has
+ * scalar fields, a date, a link, an embedded document and an embedded list of given size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark
+{
+  @Param({"10", "100"})
+  int listSize;
+
+  private ODocument document;
+
+  private JsonObject json;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    List<String> list = new ArrayList<>(listSize);
+    for (int i = 0; i < listSize; i++) {
+      list.add("value-" + i);
+    }
+    document = new ODocument("test")
+        .field("name", "name")
+        .field("count", 42)
+        .field("price", 12.5d)
+        .field("active", true)
+        .field("created", new Date())
+        .field("owner", new ORecordId(9, 1))
+        .field("address", new ODocument().field("street", "Main").field("number", 1), OType.EMBEDDED)
+        .field("values", list, OType.EMBEDDEDLIST);
+    json = DocumentConverter.DEFAULT.toJson(document);
+  }
+
+  @Benchmark
+  public JsonObject toJsonString() {
+    return new JsonObject(document.toJSON());
+  }
+
+  @Benchmark
+  public JsonObject toJsonDirect() {
+    return DocumentConverter.DEFAULT.toJson(document);
+  }
+
+  @Benchmark
+  public ODocument fromJsonString() {
+    ODocument result = new ODocument("test");
+    result.fromJSON(json.encode());
+    return result;
+  }
+
+  @Benchmark
+  public ODocument fromJsonDirect() {
+    return DocumentConverter.DEFAULT.toDocument("test", json);
+  }
+}
@@ -0,0 +1,105 @@
+package org.cstamas.vertx.orientdb.benchmarks;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import org.cstamas.vertx.orientdb.DocumentDatabase;
+import org.cstamas.vertx.orientdb.Manager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Round-trip of {@link DocumentDatabase#exec(boolean, io.vertx.core.Handler)}: operation is issued from a Vert.x
+ * context (as verticles do), and benchmark thread waits for the result. The {@link #exec()} measures single
+ * operation latency, while {@link #execBurst()} issues {@link #BURST} operations at once, to measure how they fan out
+ * over workers and pooled connections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecBenchmark
+{
+  static final int BURST = 64;
+
+  @Param({"memory", "plocal"})
+  String type;
+
+  @Param({"false", "true"})
+  boolean useEventLoop;
+
+  @Param({"true", "false"})
+  boolean ordered;
+
+  @Param({"1", "8"})
+  int maxPartitionSize;
+
+  @Param({"8", "64"})
+  int maxPoolSize;
+
+  private Vertx vertx;
+
+  private Manager manager;
+
+  private DocumentDatabase database;
+
+  private Context context;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    vertx = Vertx.vertx();
+    manager = BenchmarkSupport.openManager(vertx, useEventLoop, ordered);
+    database = BenchmarkSupport.openDatabase(manager, type, maxPartitionSize, maxPoolSize);
+    context = vertx.getOrCreateContext();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    BenchmarkSupport.close(vertx, manager);
+  }
+
+  @Benchmark
+  public String exec() throws Exception {
+    CompletableFuture<String> result = new CompletableFuture<>();
+    context.runOnContext(v -> database.exec(ordered, BenchmarkSupport.complete(result, ODatabaseDocumentTx::getName)));
+    return result.get();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BURST)
+  public int execBurst() throws Exception {
+    CompletableFuture<Integer> result = new CompletableFuture<>();
+    AtomicInteger remaining = new AtomicInteger(BURST);
+    context.runOnContext(v -> {
+      for (int i = 0; i < BURST; i++) {
+        database.exec(ordered, adb -> {
+          if (adb.failed()) {
+            result.completeExceptionally(adb.cause());
+          }
+          else if (remaining.decrementAndGet() == 0) {
+            result.complete(BURST);
+          }
+        });
+      }
+    });
+    return result.get();
+  }
+}
@@ -0,0 +1,78 @@
+package org.cstamas.vertx.orientdb.benchmarks;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.tinkerpop.blueprints.impls.orient.OrientGraph;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import org.cstamas.vertx.orientdb.DocumentDatabase;
+import org.cstamas.vertx.orientdb.Manager;
+import org.cstamas.vertx.orientdb.OrientUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Overhead of {@link OrientUtils#graph(io.vertx.core.Handler)} wrapper (used by graph databases), compared to plain
+ * document operation on same connection pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphBenchmark
+{
+  @Param({"memory"})
+  String type;
+
+  private Vertx vertx;
+
+  private Manager manager;
+
+  private DocumentDatabase database;
+
+  private Context context;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    vertx = Vertx.vertx();
+    manager = BenchmarkSupport.openManager(vertx, false, true);
+    database = BenchmarkSupport.openDatabase(manager, type, 8, 64);
+    context = vertx.getOrCreateContext();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    BenchmarkSupport.close(vertx, manager);
+  }
+
+  @Benchmark
+  public String document() throws Exception {
+    CompletableFuture<String> result = new CompletableFuture<>();
+    context.runOnContext(v -> database.exec(BenchmarkSupport.complete(result, ODatabaseDocumentTx::getName)));
+    return result.get();
+  }
+
+  @Benchmark
+  public String graph() throws Exception {
+    CompletableFuture<String> result = new CompletableFuture<>();
+    context.runOnContext(v -> database.exec(OrientUtils.graph(
+        BenchmarkSupport.complete(result, (OrientGraph graph) -> graph.getRawGraph().getName())
+    )));
+    return result.get();
+  }
+}
@@ -0,0 +1,100 @@
+package org.cstamas.vertx.orientdb.benchmarks;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import org.cstamas.vertx.orientdb.ClusterWriter;
+import org.cstamas.vertx.orientdb.DocumentDatabase;
+import org.cstamas.vertx.orientdb.Manager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Concurrent insert throughput with default cluster selection, compared to {@link ClusterWriter} pinning a cluster
+ * per worker thread, with class having one or many clusters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class InsertBenchmark
+{
+  private static final String CLASS_NAME = "insert";
+
+  @Param({"memory", "plocal"})
+  String type;
+
+  @Param({"1", "8"})
+  int clusters;
+
+  private Vertx vertx;
+
+  private Manager manager;
+
+  private DocumentDatabase database;
+
+  private ClusterWriter clusterWriter;
+
+  private Context context;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    vertx = Vertx.vertx();
+    manager = BenchmarkSupport.openManager(vertx, false, false);
+    database = BenchmarkSupport.openDatabase(manager, type, 8, 64, db -> {
+      if (db.getMetadata().getSchema().existsClass(CLASS_NAME)) {
+        db.getMetadata().getSchema().dropClass(CLASS_NAME);
+      }
+      db.getMetadata().getSchema().createClass(CLASS_NAME, clusters, new OClass[0]);
+    });
+    clusterWriter = database.clusterWriter(CLASS_NAME);
+    context = vertx.getOrCreateContext();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    BenchmarkSupport.close(vertx, manager);
+  }
+
+  @Benchmark
+  public ORID plain() throws Exception {
+    CompletableFuture<ORID> result = new CompletableFuture<>();
+    context.runOnContext(v -> database.call(
+        false,
+        db -> db.save(new ODocument(CLASS_NAME).field("value", 1)).getIdentity().copy(),
+        BenchmarkSupport.complete(result, Function.identity())
+    ));
+    return result.get();
+  }
+
+  @Benchmark
+  public ORID cluster() throws Exception {
+    CompletableFuture<ORID> result = new CompletableFuture<>();
+    context.runOnContext(v -> clusterWriter.save(
+        new ODocument(CLASS_NAME).field("value", 1),
+        BenchmarkSupport.complete(result, Function.identity())
+    ));
+    return result.get();
+  }
+}
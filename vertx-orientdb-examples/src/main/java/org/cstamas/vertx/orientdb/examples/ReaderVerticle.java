@@ -1,18 +1,12 @@
 package org.cstamas.vertx.orientdb.examples;
 
-import java.util.List;
-
-import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
-import com.orientechnologies.orient.core.record.impl.ODocument;
-import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Future;
-import io.vertx.core.eventbus.Message;
-import io.vertx.core.eventbus.MessageConsumer;
-import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
+import io.vertx.core.streams.ReadStream;
 import org.cstamas.vertx.orientdb.DocumentDatabase;
+import org.cstamas.vertx.orientdb.LiveEvent;
 
 /**
  * OrientDB test verticle.
@@ -24,7 +18,7 @@ public class ReaderVerticle
 
   private final DocumentDatabase documentDatabase;
 
-  private MessageConsumer<JsonObject> consumer;
+  private ReadStream<LiveEvent> liveEvents;
 
   public ReaderVerticle(final DocumentDatabase documentDatabase) {
     this.documentDatabase = documentDatabase;
@@ -32,20 +26,16 @@ public class ReaderVerticle
 
   @Override
   public void start(final Future<Void> startFuture) throws Exception {
-    consumer = vertx.eventBus().consumer("read",
-        (Message<JsonObject> m) -> {
-          documentDatabase.exec(adb -> {
-            if (adb.failed()) {
-              log.warn("DB failure", adb.cause());
-            }
-            else {
-              ODatabaseDocumentTx db = adb.result();
-              List<ODocument> res = db.query(new OSQLSynchQuery<ODocument>("select count(*) as count from test"));
-              log.info("List size=" + res.get(0).field("count"));
-            }
-          });
-        }
-    );
+    // changes are pushed as they are committed, no need to poll
+    liveEvents = documentDatabase.liveQuery("select from test", null);
+    liveEvents.exceptionHandler(e -> log.warn("Live query failure", e));
+    liveEvents.handler(event -> log.info("Live " + event.type() + " " + event.document().getIdentity()));
     super.start(startFuture);
   }
+
+  @Override
+  public void stop(final Future<Void> stopFuture) throws Exception {
+    liveEvents.handler(null);
+    super.stop(stopFuture);
+  }
 }
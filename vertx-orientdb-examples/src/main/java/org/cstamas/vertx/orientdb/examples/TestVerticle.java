@@ -35,8 +35,6 @@ public class TestVerticle
 
   private WriterVerticle writerVerticle;
 
-  private long readPeriodic;
-
   private long writePeriodic;
 
   private MessageConsumer<JsonObject> proxy;
@@ -57,11 +55,7 @@ public class TestVerticle
           }
           else {
             log.info("Starting periodics");
-            // fire events that cause READ and WRITE operations
-            readPeriodic = vertx.setPeriodic(50,
-                t -> {
-                  vertx.eventBus().publish("read", null);
-                });
+            // fire events that cause WRITE operations, reads are pushed by live query of reader
             writePeriodic = vertx.setPeriodic(50,
                 t -> {
                   long now = System.currentTimeMillis();
@@ -139,7 +133,6 @@ public class TestVerticle
         proxy = ProxyHelper.registerService(DocumentDatabaseService.class, vertx,
             new DocumentDatabaseServiceImpl(documentDatabase), "test");
 
-        vertx.deployVerticle(ServiceReaderVerticle.class.getName());
         vertx.deployVerticle(ServiceWriterVerticle.class.getName());
 
         log.info("Verticles deployed?");
@@ -1,6 +1,5 @@
 package org.cstamas.vertx.orientdb.examples;
 
-import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Future;
@@ -9,6 +8,7 @@ import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
+import org.cstamas.vertx.orientdb.BatchWriter;
 import org.cstamas.vertx.orientdb.DocumentDatabase;
 
 /**
@@ -21,6 +21,8 @@ public class WriterVerticle
 
   private final DocumentDatabase documentDatabase;
 
+  private BatchWriter batchWriter;
+
   private MessageConsumer<JsonObject> consumer;
 
   public WriterVerticle(final DocumentDatabase documentDatabase) {
@@ -29,22 +31,20 @@ public class WriterVerticle
 
   @Override
   public void start(final Future<Void> startFuture) throws Exception {
+    // many small writes are coalesced into fewer transactions
+    batchWriter = documentDatabase.batchWriter(100, 10L);
     consumer = vertx.eventBus().consumer("write",
         (Message<JsonObject> m) -> {
-          documentDatabase.exec(adb -> {
-                if (adb.succeeded()) {
-                  ODatabaseDocumentTx db = adb.result();
-                  JsonObject message = m.body();
-                  db.begin();
-                  ODocument doc = new ODocument("test");
-                  doc.field("name", message.getValue("name"));
-                  doc.field("value", message.getValue("value"));
-                  db.save(doc);
-                  db.commit();
-                  log.info("Written " + message);
+          JsonObject message = m.body();
+          ODocument doc = new ODocument("test");
+          doc.field("name", message.getValue("name"));
+          doc.field("value", message.getValue("value"));
+          batchWriter.save(doc, rid -> {
+                if (rid.succeeded()) {
+                  log.info("Written " + message + " as " + rid.result());
                 }
                 else {
-                  log.error("Error", adb.cause());
+                  log.error("Error", rid.cause());
                 }
               }
           );
@@ -52,4 +52,10 @@ public class WriterVerticle
     );
     super.start(startFuture);
   }
+
+  @Override
+  public void stop(final Future<Void> stopFuture) throws Exception {
+    consumer.unregister();
+    batchWriter.close(stopFuture.completer());
+  }
 }
@@ -0,0 +1,40 @@
+package org.cstamas.vertx.orientdb.examples.service;
+
+import java.util.List;
+
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+import org.cstamas.vertx.orientdb.ODocumentCodec;
+import org.cstamas.vertx.orientdb.ODocumentListCodec;
+
+/**
+ * OrientDB service, like {@link DocumentDatabaseService} but exchanging {@link ODocument}s in binary record format
+ * using {@link ODocumentCodec} and {@link ODocumentListCodec}, instead of converting them from and to JSON. Generated
+ * service proxies carry all arguments in one JSON object, hence the proxy and handler of this service are hand written
+ * following same conventions (action in message header).
+ */
+public interface BinaryDocumentService
+{
+  static BinaryDocumentService createProxy(Vertx vertx, String address) {
+    return new BinaryDocumentServiceProxy(vertx, address);
+  }
+
+  static MessageConsumer<Object> registerService(Vertx vertx, BinaryDocumentService service, String address) {
+    return new BinaryDocumentServiceHandler(vertx, service).registerHandler(address);
+  }
+
+  /**
+   * Saves the document, that must have class set.
+   */
+  BinaryDocumentService insert(ODocument document, Handler<AsyncResult<String>> handler);
+
+  /**
+   * Selects documents of class having all fields of {@code criteria} equal to their values, like
+   * {@link DocumentDatabaseService#select(String, JsonObject, Handler)}.
+   */
+  BinaryDocumentService select(String clazz, JsonObject criteria, Handler<AsyncResult<List<ODocument>>> handler);
+}
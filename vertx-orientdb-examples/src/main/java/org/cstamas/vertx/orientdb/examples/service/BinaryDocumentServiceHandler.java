@@ -0,0 +1,76 @@
+package org.cstamas.vertx.orientdb.examples.service;
+
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+import org.cstamas.vertx.orientdb.ODocumentCodec;
+import org.cstamas.vertx.orientdb.ODocumentListCodec;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Event bus handler dispatching messages sent by {@link BinaryDocumentServiceProxy} to {@link BinaryDocumentService}.
+ * Failures are replied with failure code -1 and message of the cause.
+ */
+public class BinaryDocumentServiceHandler
+    implements Handler<Message<Object>>
+{
+  private final Vertx vertx;
+
+  private final BinaryDocumentService service;
+
+  public BinaryDocumentServiceHandler(final Vertx vertx, final BinaryDocumentService service) {
+    this.vertx = requireNonNull(vertx);
+    this.service = requireNonNull(service);
+    ODocumentCodec.register(vertx.eventBus());
+  }
+
+  public MessageConsumer<Object> registerHandler(final String address) {
+    return vertx.eventBus().consumer(address, this);
+  }
+
+  @Override
+  public void handle(final Message<Object> msg) {
+    try {
+      String action = msg.headers().get("action");
+      if (action == null) {
+        throw new IllegalStateException("action not specified");
+      }
+      switch (action) {
+        case "insert": {
+          service.insert((ODocument) msg.body(), res -> {
+            if (res.failed()) {
+              msg.fail(-1, res.cause().getMessage());
+            }
+            else {
+              msg.reply(res.result());
+            }
+          });
+          break;
+        }
+        case "select": {
+          JsonObject json = (JsonObject) msg.body();
+          service.select(json.getString("clazz"), json.getJsonObject("criteria"), res -> {
+            if (res.failed()) {
+              msg.fail(-1, res.cause().getMessage());
+            }
+            else {
+              msg.reply(res.result(), new DeliveryOptions().setCodecName(ODocumentListCodec.NAME));
+            }
+          });
+          break;
+        }
+        default: {
+          throw new IllegalStateException("Invalid action: " + action);
+        }
+      }
+    }
+    catch (Throwable t) {
+      msg.fail(-1, t.getMessage());
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package org.cstamas.vertx.orientdb.examples.service;
+
+import java.util.List;
+
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.json.JsonObject;
+import org.cstamas.vertx.orientdb.ODocumentCodec;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Event bus proxy of {@link BinaryDocumentService}.
+ */
+public class BinaryDocumentServiceProxy
+    implements BinaryDocumentService
+{
+  private final Vertx vertx;
+
+  private final String address;
+
+  public BinaryDocumentServiceProxy(final Vertx vertx, final String address) {
+    this.vertx = requireNonNull(vertx);
+    this.address = requireNonNull(address);
+    ODocumentCodec.register(vertx.eventBus());
+  }
+
+  @Override
+  public BinaryDocumentService insert(final ODocument document, final Handler<AsyncResult<String>> handler) {
+    vertx.eventBus().<String>send(address, document, action("insert"), res -> {
+      if (res.failed()) {
+        handler.handle(Future.failedFuture(res.cause()));
+      }
+      else {
+        handler.handle(Future.succeededFuture(res.result().body()));
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public BinaryDocumentService select(final String clazz,
+                                      final JsonObject criteria,
+                                      final Handler<AsyncResult<List<ODocument>>> handler)
+  {
+    JsonObject json = new JsonObject().put("clazz", clazz).put("criteria", criteria);
+    vertx.eventBus().<List<ODocument>>send(address, json, action("select"), res -> {
+      if (res.failed()) {
+        handler.handle(Future.failedFuture(res.cause()));
+      }
+      else {
+        handler.handle(Future.succeededFuture(res.result().body()));
+      }
+    });
+    return this;
+  }
+
+  private static DeliveryOptions action(final String action) {
+    return new DeliveryOptions().addHeader("action", action);
+  }
+}
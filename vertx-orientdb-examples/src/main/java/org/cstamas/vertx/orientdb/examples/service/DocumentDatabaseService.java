@@ -27,9 +27,17 @@ public interface DocumentDatabaseService
   @Fluent
   DocumentDatabaseService insert(String clazz, JsonObject document, Handler<AsyncResult<String>> handler);
 
+  /**
+   * Deletes documents of class having all fields of {@code criteria} equal to their values (all documents, if
+   * criteria is empty). Values are bound as parameters, and class and field names must be plain identifiers.
+   */
   @Fluent
-  DocumentDatabaseService delete(String clazz, String where, Handler<AsyncResult<Void>> handler);
+  DocumentDatabaseService delete(String clazz, JsonObject criteria, Handler<AsyncResult<Void>> handler);
 
+  /**
+   * Selects documents of class having all fields of {@code criteria} equal to their values (all documents, if
+   * criteria is empty). Values are bound as parameters, and class and field names must be plain identifiers.
+   */
   @Fluent
-  DocumentDatabaseService select(String clazz, String where, Handler<AsyncResult<List<JsonObject>>> handler);
+  DocumentDatabaseService select(String clazz, JsonObject criteria, Handler<AsyncResult<List<JsonObject>>> handler);
 }
@@ -0,0 +1,62 @@
+package org.cstamas.vertx.orientdb.examples.service.impl;
+
+import java.util.List;
+
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+import org.cstamas.vertx.orientdb.BatchWriter;
+import org.cstamas.vertx.orientdb.DocumentDatabase;
+import org.cstamas.vertx.orientdb.examples.service.BinaryDocumentService;
+
+/**
+ * Default implementation.
+ */
+public class BinaryDocumentServiceImpl
+    implements BinaryDocumentService
+{
+  private final DocumentDatabase documentDatabase;
+
+  private final BatchWriter batchWriter;
+
+  public BinaryDocumentServiceImpl(final DocumentDatabase documentDatabase) {
+    this.documentDatabase = documentDatabase;
+    this.batchWriter = documentDatabase.batchWriter(100, 10L);
+  }
+
+  @Override
+  public BinaryDocumentService insert(final ODocument document, final Handler<AsyncResult<String>> handler) {
+    if (document.getClassName() == null) {
+      handler.handle(Future.failedFuture(new IllegalArgumentException("Document class not set")));
+      return this;
+    }
+    batchWriter.save(document, rid -> {
+      if (rid.succeeded()) {
+        handler.handle(Future.succeededFuture(rid.result().toString()));
+      }
+      else {
+        handler.handle(Future.failedFuture(rid.cause()));
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public BinaryDocumentService select(final String clazz,
+                                      final JsonObject criteria,
+                                      final Handler<AsyncResult<List<ODocument>>> handler)
+  {
+    String sql;
+    try {
+      sql = Criteria.statement("select from", clazz, criteria);
+    }
+    catch (IllegalArgumentException e) {
+      handler.handle(Future.failedFuture(e));
+      return this;
+    }
+    documentDatabase.query(sql, criteria.getMap(), handler);
+    return this;
+  }
+}
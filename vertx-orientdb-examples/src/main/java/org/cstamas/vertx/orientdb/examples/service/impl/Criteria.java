@@ -0,0 +1,42 @@
+package org.cstamas.vertx.orientdb.examples.service.impl;
+
+import java.util.regex.Pattern;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Builds SQL statements over a class from criteria: each field of criteria becomes an equality condition with the
+ * value bound as named parameter, and conditions are combined with {@code and}. Class and field names cannot be bound
+ * as parameters, so they are validated to be plain identifiers, and no SQL text of caller reaches the statement.
+ */
+final class Criteria
+{
+  private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+  private Criteria() {
+    // nop
+  }
+
+  /**
+   * Returns statement starting with {@code prefix} (like {@code select from}) over class, selecting documents having
+   * all fields of criteria equal to their values, or all documents if criteria is empty. The criteria map is to be
+   * passed as parameters of the statement.
+   *
+   * @throws IllegalArgumentException if class or any field name is not a plain identifier.
+   */
+  static String statement(final String prefix, final String clazz, final JsonObject criteria) {
+    if (clazz == null || !IDENTIFIER.matcher(clazz).matches()) {
+      throw new IllegalArgumentException("Invalid class name: " + clazz);
+    }
+    StringBuilder sql = new StringBuilder(prefix).append(' ').append(clazz);
+    String separator = " where ";
+    for (String field : criteria.fieldNames()) {
+      if (!IDENTIFIER.matcher(field).matches()) {
+        throw new IllegalArgumentException("Invalid field name: " + field);
+      }
+      sql.append(separator).append(field).append(" = :").append(field);
+      separator = " and ";
+    }
+    return sql.toString();
+  }
+}
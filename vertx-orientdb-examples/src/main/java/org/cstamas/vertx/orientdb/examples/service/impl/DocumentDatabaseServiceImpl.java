@@ -3,14 +3,13 @@ package org.cstamas.vertx.orientdb.examples.service.impl;
 import java.util.ArrayList;
 import java.util.List;
 
-import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
 import com.orientechnologies.orient.core.record.impl.ODocument;
-import com.orientechnologies.orient.core.sql.OCommandSQL;
-import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.json.JsonObject;
+import org.cstamas.vertx.orientdb.BatchWriter;
+import org.cstamas.vertx.orientdb.DocumentConverter;
 import org.cstamas.vertx.orientdb.DocumentDatabase;
 import org.cstamas.vertx.orientdb.examples.service.DocumentDatabaseService;
 
@@ -22,8 +21,11 @@ public class DocumentDatabaseServiceImpl
 {
   private final DocumentDatabase documentDatabase;
 
+  private final BatchWriter batchWriter;
+
   public DocumentDatabaseServiceImpl(final DocumentDatabase documentDatabase) {
     this.documentDatabase = documentDatabase;
+    this.batchWriter = documentDatabase.batchWriter(100, 10L);
   }
 
   @Override
@@ -31,63 +33,66 @@ public class DocumentDatabaseServiceImpl
                                         final JsonObject document,
                                         final Handler<AsyncResult<String>> handler)
   {
-    documentDatabase.exec(
-        ah -> {
-          if (ah.succeeded()) {
-            ODatabaseDocumentTx db = ah.result();
-            db.begin();
-            ODocument doc = db.newInstance(clazz);
-            doc.fromJSON(document.toString());
-            db.save(doc);
-            db.commit();
-            handler.handle(Future.succeededFuture(doc.getIdentity().toString()));
-          }
-          else {
-            handler.handle(Future.failedFuture(ah.cause()));
-          }
-        }
-    );
+    ODocument doc = DocumentConverter.DEFAULT.toDocument(clazz, document);
+    batchWriter.save(doc, rid -> {
+      if (rid.succeeded()) {
+        handler.handle(Future.succeededFuture(rid.result().toString()));
+      }
+      else {
+        handler.handle(Future.failedFuture(rid.cause()));
+      }
+    });
     return this;
   }
 
   @Override
-  public DocumentDatabaseService delete(final String clazz, final String where, final Handler<AsyncResult<Void>> handler) {
-    documentDatabase.exec(
-        ah -> {
-          if (ah.succeeded()) {
-            ODatabaseDocumentTx db = ah.result();
-            db.begin();
-            db.command(new OCommandSQL("delete from " + clazz + " where " + where)).execute();
-            db.commit();
-            handler.handle(Future.succeededFuture());
-          }
-          else {
-            handler.handle(Future.failedFuture(ah.cause()));
-          }
-        }
-    );
+  public DocumentDatabaseService delete(final String clazz,
+                                        final JsonObject criteria,
+                                        final Handler<AsyncResult<Void>> handler)
+  {
+    String sql;
+    try {
+      sql = Criteria.statement("delete from", clazz, criteria);
+    }
+    catch (IllegalArgumentException e) {
+      handler.handle(Future.failedFuture(e));
+      return this;
+    }
+    documentDatabase.command(sql, criteria.getMap(), ar -> {
+      if (ar.succeeded()) {
+        handler.handle(Future.succeededFuture());
+      }
+      else {
+        handler.handle(Future.failedFuture(ar.cause()));
+      }
+    });
     return this;
   }
 
   @Override
   public DocumentDatabaseService select(final String clazz,
-                                        final String where,
+                                        final JsonObject criteria,
                                         final Handler<AsyncResult<List<JsonObject>>> handler)
   {
-    documentDatabase.exec(
-        ah -> {
-          if (ah.succeeded()) {
-            ODatabaseDocumentTx db = ah.result();
-            List<ODocument> result = db.query(new OSQLSynchQuery<>("select from " + clazz + " where " + where));
-            ArrayList<JsonObject> jsonDocuments = new ArrayList<>(result.size());
-            result.forEach(d -> jsonDocuments.add(new JsonObject(d.toJSON())));
-            handler.handle(Future.succeededFuture(jsonDocuments));
-          }
-          else {
-            handler.handle(Future.failedFuture(ah.cause()));
-          }
-        }
-    );
+    String sql;
+    try {
+      sql = Criteria.statement("select from", clazz, criteria);
+    }
+    catch (IllegalArgumentException e) {
+      handler.handle(Future.failedFuture(e));
+      return this;
+    }
+    documentDatabase.query(sql, criteria.getMap(), ar -> {
+      if (ar.succeeded()) {
+        List<ODocument> result = ar.result();
+        ArrayList<JsonObject> jsonDocuments = new ArrayList<>(result.size());
+        result.forEach(d -> jsonDocuments.add(DocumentConverter.DEFAULT.toJson(d)));
+        handler.handle(Future.succeededFuture(jsonDocuments));
+      }
+      else {
+        handler.handle(Future.failedFuture(ar.cause()));
+      }
+    });
     return this;
   }
 }
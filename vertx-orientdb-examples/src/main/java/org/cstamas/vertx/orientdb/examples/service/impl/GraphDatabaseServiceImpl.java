@@ -1,19 +1,19 @@
 package org.cstamas.vertx.orientdb.examples.service.impl;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import javax.script.Bindings;
+import javax.script.ScriptException;
 
-import com.tinkerpop.blueprints.impls.orient.OrientGraph;
-import com.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
 import io.vertx.core.AsyncResult;
-import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import org.cstamas.vertx.orientdb.GraphDatabase;
 import org.cstamas.vertx.orientdb.examples.service.GraphDatabaseService;
 
+import static java.util.Objects.requireNonNull;
+
 /**
  * Default implementation.
  */
@@ -22,8 +22,15 @@ public class GraphDatabaseServiceImpl
 {
   private final GraphDatabase graphDatabase;
 
+  private final GremlinScriptExecutor scriptExecutor;
+
   public GraphDatabaseServiceImpl(final GraphDatabase graphDatabase) {
-    this.graphDatabase = graphDatabase;
+    this(graphDatabase, new GremlinScriptExecutor(100, 4));
+  }
+
+  public GraphDatabaseServiceImpl(final GraphDatabase graphDatabase, final GremlinScriptExecutor scriptExecutor) {
+    this.graphDatabase = requireNonNull(graphDatabase);
+    this.scriptExecutor = requireNonNull(scriptExecutor);
   }
 
   @Override
@@ -31,29 +38,19 @@ public class GraphDatabaseServiceImpl
                                             final String script,
                                             final Handler<AsyncResult<List<String>>> handler)
   {
-    final GremlinGroovyScriptEngine scriptEngine = new GremlinGroovyScriptEngine();
-    graphDatabase.exec(agr -> {
-      Future<List<String>> future;
-      if (agr.succeeded()) {
-        OrientGraph g = agr.result();
-        List<String> result = new ArrayList<>();
-        Bindings bindings = scriptEngine.createBindings();
-        bindings.put("g", g);
-        bindings.put("result", result);
-        params.entrySet().forEach(e -> bindings.put(e.getKey(), e.getValue()));
-        try {
-          scriptEngine.eval(script, bindings);
-          future = Future.succeededFuture(result);
-        }
-        catch (Exception e) {
-          future = Future.failedFuture(e);
-        }
+    graphDatabase.call(g -> {
+      List<String> result = new ArrayList<>();
+      Map<String, Object> bindings = new HashMap<>(params);
+      bindings.put("g", g);
+      bindings.put("result", result);
+      try {
+        scriptExecutor.eval(script, bindings);
       }
-      else {
-        future = Future.failedFuture(agr.cause());
+      catch (ScriptException e) {
+        throw new IllegalStateException(e);
       }
-      handler.handle(future);
-    });
+      return result;
+    }, handler);
     return this;
   }
 }
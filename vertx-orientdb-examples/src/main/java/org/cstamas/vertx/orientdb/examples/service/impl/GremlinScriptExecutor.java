@@ -0,0 +1,148 @@
+package org.cstamas.vertx.orientdb.examples.service.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.script.CompiledScript;
+import javax.script.ScriptException;
+import javax.script.SimpleBindings;
+
+import com.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
+import org.cstamas.vertx.orientdb.CacheStats;
+import org.cstamas.vertx.orientdb.Histogram;
+
+/**
+ * Executes Gremlin scripts, compiling each script text only once: compiled scripts are kept in bounded LRU cache,
+ * and are evaluated with fresh bindings on each execution, so parameterized scripts (values passed in as bindings,
+ * not concatenated into script text) are compiled once. Compilation is done by a bounded pool of shared script
+ * engines, that are created lazily. Compile and execute times (in nanoseconds) are recorded in histograms.
+ * <p>
+ * Methods are blocking, and are meant to be invoked on worker threads.
+ */
+public class GremlinScriptExecutor
+{
+  private final int maxScripts;
+
+  private final int maxEngines;
+
+  private final LinkedHashMap<String, CompiledScript> scripts;
+
+  private final ArrayBlockingQueue<GremlinGroovyScriptEngine> engines;
+
+  private final AtomicInteger createdEngines;
+
+  private final AtomicLong hits;
+
+  private final AtomicLong misses;
+
+  private final AtomicLong evictions;
+
+  private final Histogram compileTime;
+
+  private final Histogram executeTime;
+
+  public GremlinScriptExecutor(final int maxScripts, final int maxEngines) {
+    if (maxScripts < 1) {
+      throw new IllegalArgumentException("Max scripts must be greater than zero: " + maxScripts);
+    }
+    if (maxEngines < 1) {
+      throw new IllegalArgumentException("Max engines must be greater than zero: " + maxEngines);
+    }
+    this.maxScripts = maxScripts;
+    this.maxEngines = maxEngines;
+    this.scripts = new LinkedHashMap<String, CompiledScript>(16, 0.75f, true)
+    {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, CompiledScript> eldest) {
+        if (size() > GremlinScriptExecutor.this.maxScripts) {
+          evictions.incrementAndGet();
+          return true;
+        }
+        return false;
+      }
+    };
+    this.engines = new ArrayBlockingQueue<>(maxEngines);
+    this.createdEngines = new AtomicInteger(0);
+    this.hits = new AtomicLong(0);
+    this.misses = new AtomicLong(0);
+    this.evictions = new AtomicLong(0);
+    this.compileTime = new Histogram();
+    this.executeTime = new Histogram();
+  }
+
+  /**
+   * Evaluates the script with given bindings, compiling it if not cached.
+   */
+  public Object eval(final String script, final Map<String, Object> bindings) throws ScriptException {
+    CompiledScript compiledScript = compiled(script);
+    long start = System.nanoTime();
+    try {
+      return compiledScript.eval(new SimpleBindings(bindings));
+    }
+    finally {
+      executeTime.record(System.nanoTime() - start);
+    }
+  }
+
+  public CacheStats getScriptCacheStats() {
+    int size;
+    synchronized (scripts) {
+      size = scripts.size();
+    }
+    return new CacheStats(size, hits.get(), misses.get(), evictions.get());
+  }
+
+  public Histogram getCompileTime() {
+    return compileTime;
+  }
+
+  public Histogram getExecuteTime() {
+    return executeTime;
+  }
+
+  private CompiledScript compiled(final String script) throws ScriptException {
+    synchronized (scripts) {
+      CompiledScript compiledScript = scripts.get(script);
+      if (compiledScript != null) {
+        hits.incrementAndGet();
+        return compiledScript;
+      }
+    }
+    misses.incrementAndGet();
+    GremlinGroovyScriptEngine engine = borrow();
+    try {
+      long start = System.nanoTime();
+      CompiledScript compiledScript = engine.compile(script);
+      compileTime.record(System.nanoTime() - start);
+      synchronized (scripts) {
+        scripts.put(script, compiledScript);
+      }
+      return compiledScript;
+    }
+    finally {
+      engines.add(engine);
+    }
+  }
+
+  private GremlinGroovyScriptEngine borrow() {
+    GremlinGroovyScriptEngine engine = engines.poll();
+    if (engine != null) {
+      return engine;
+    }
+    if (createdEngines.incrementAndGet() <= maxEngines) {
+      // engine keeps compiled classes too, make it drop them when it has more than cache could hold
+      return new GremlinGroovyScriptEngine(maxScripts);
+    }
+    createdEngines.decrementAndGet();
+    try {
+      return engines.take();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for script engine", e);
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package org.cstamas.vertx.orientdb.examples;
+
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.cstamas.vertx.orientdb.ConnectionOptions.OverflowStrategy;
+import org.cstamas.vertx.orientdb.DatabaseMetrics;
+import org.cstamas.vertx.orientdb.DatabaseOverloadedException;
+import org.junit.Test;
+
+/**
+ * Junit test.
+ */
+public class AdmissionTest
+    extends TestSupport
+{
+  @Test
+  public void rejectOverflow(final TestContext context) {
+    withDocumentDatabase(
+        context,
+        DatabaseMetrics.noop(),
+        conn -> conn
+            .setWorkerPoolSize(1)
+            .setMaxPendingOperations(1)
+            .setOverflowStrategy(OverflowStrategy.REJECT, 0L),
+        db -> {},
+        (db, async) -> db.exec(false, busy -> {
+          // the single worker is busy, so this one is pending
+          db.exec(false, pending -> {});
+          db.exec(false, rejected -> {
+            context.assertTrue(rejected.failed());
+            context.assertTrue(rejected.cause() instanceof DatabaseOverloadedException);
+            context.assertEquals(1, db.getPendingOperations());
+            async.complete();
+          });
+        })
+    );
+  }
+
+  @Test
+  public void waitOverflow(final TestContext context) {
+    withDocumentDatabase(
+        context,
+        DatabaseMetrics.noop(),
+        conn -> conn
+            .setWorkerPoolSize(1)
+            .setMaxPendingOperations(1)
+            .setOverflowStrategy(OverflowStrategy.WAIT, 250L),
+        db -> {},
+        (db, async) -> db.exec(false, busy -> {
+          // the single worker is busy, so this one is pending
+          db.exec(false, pending -> {});
+          db.exec(false, timedOut -> {
+            context.assertTrue(timedOut.failed());
+            context.assertTrue(timedOut.cause() instanceof DatabaseOverloadedException);
+            // admitted once pending one starts, when busy worker is done
+            db.exec(false, admitted -> {
+              context.assertTrue(admitted.succeeded());
+              async.complete();
+            });
+          });
+          sleep(context, 300L);
+        })
+    );
+  }
+
+  @Test
+  public void dropOldestOverflow(final TestContext context) {
+    withDocumentDatabase(
+        context,
+        DatabaseMetrics.noop(),
+        conn -> conn
+            .setWorkerPoolSize(1)
+            .setMaxPendingOperations(1)
+            .setOverflowStrategy(OverflowStrategy.DROP_OLDEST, 0L),
+        db -> {},
+        (db, async) -> db.exec(false, busy -> {
+          Async done = context.async(2);
+          db.exec(false, dropped -> {
+            context.assertTrue(dropped.failed());
+            context.assertTrue(dropped.cause() instanceof DatabaseOverloadedException);
+            done.countDown();
+          });
+          db.exec(false, newer -> {
+            context.assertTrue(newer.succeeded());
+            done.countDown();
+          });
+          done.handler(v -> async.complete());
+          sleep(context, 100L);
+        })
+    );
+  }
+
+  private static void sleep(final TestContext context, final long millis) {
+    try {
+      Thread.sleep(millis);
+    }
+    catch (InterruptedException e) {
+      context.fail(e);
+    }
+  }
+}
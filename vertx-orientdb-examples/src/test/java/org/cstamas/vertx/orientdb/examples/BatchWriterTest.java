@@ -0,0 +1,84 @@
+package org.cstamas.vertx.orientdb.examples;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.orientechnologies.orient.core.exception.OValidationException;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+import io.vertx.ext.unit.TestContext;
+import org.cstamas.vertx.orientdb.BatchWriter;
+import org.junit.Test;
+
+/**
+ * Junit test.
+ */
+public class BatchWriterTest
+    extends TestSupport
+{
+  @Test
+  public void batchedInserts(final TestContext context) {
+    int count = 25;
+    withDocumentDatabase(context, db -> db.getMetadata().getSchema().createClass("test"), (db, async) -> {
+      BatchWriter batchWriter = db.batchWriter(10, 50L);
+      Set<ORID> rids = new HashSet<>();
+      for (int i = 0; i < count; i++) {
+        batchWriter.save(new ODocument("test").field("value", i), rid -> {
+          context.assertTrue(rid.succeeded());
+          context.assertTrue(rid.result().isPersistent());
+          rids.add(rid.result());
+        });
+      }
+      batchWriter.close(closed -> {
+        context.assertTrue(closed.succeeded());
+        // callers are notified on their context before writer is closed
+        context.assertEquals(count, rids.size());
+        db.exec(cdb -> {
+          List<ODocument> result = cdb.result()
+              .query(new OSQLSynchQuery<ODocument>("select count(*) as count from test"));
+          context.assertEquals((long) count, result.get(0).field("count"));
+          async.complete();
+        });
+      });
+    });
+  }
+
+  @Test
+  public void invalidDocumentFailsAlone(final TestContext context) {
+    withDocumentDatabase(context, db -> {
+      OClass test = db.getMetadata().getSchema().createClass("test");
+      test.createProperty("value", OType.INTEGER).setMandatory(true);
+    }, (db, async) -> {
+      BatchWriter batchWriter = db.batchWriter(4, 50L);
+      Set<ORID> rids = new HashSet<>();
+      List<Throwable> failures = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        ODocument document = i == 2 ? new ODocument("test") : new ODocument("test").field("value", i);
+        batchWriter.save(document, rid -> {
+          if (rid.succeeded()) {
+            // retried after rollback with reset identity
+            context.assertTrue(rid.result().isPersistent());
+            rids.add(rid.result());
+          }
+          else {
+            failures.add(rid.cause());
+          }
+        });
+      }
+      batchWriter.close(closed -> {
+        context.assertEquals(3, rids.size());
+        context.assertEquals(1, failures.size());
+        context.assertTrue(failures.get(0) instanceof OValidationException);
+        db.call(cdb -> cdb.countClass("test"), count -> {
+          context.assertEquals(3L, count.result());
+          async.complete();
+        });
+      });
+    });
+  }
+}
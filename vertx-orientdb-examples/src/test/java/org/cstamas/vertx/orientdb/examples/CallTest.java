@@ -0,0 +1,33 @@
+package org.cstamas.vertx.orientdb.examples;
+
+import io.vertx.core.Context;
+import io.vertx.ext.unit.TestContext;
+import org.junit.Test;
+
+/**
+ * Junit test.
+ */
+public class CallTest
+    extends TestSupport
+{
+  @Test
+  public void resultOnCallerContext(final TestContext context) {
+    withDocumentDatabase(context, db -> db.getMetadata().getSchema().createClass("test"), (db, async) -> {
+      Context caller = vertx.getOrCreateContext();
+      db.call(cdb -> cdb.countClass("test"), count -> {
+        context.assertTrue(count.succeeded());
+        context.assertEquals(0L, count.result());
+        context.assertEquals(caller, vertx.getOrCreateContext());
+        context.assertTrue(Context.isOnEventLoopThread());
+        db.<Long>call(cdb -> {
+          throw new IllegalArgumentException("boom");
+        }, failed -> {
+          context.assertTrue(failed.failed());
+          context.assertTrue(failed.cause() instanceof IllegalArgumentException);
+          context.assertEquals(caller, vertx.getOrCreateContext());
+          async.complete();
+        });
+      });
+    });
+  }
+}
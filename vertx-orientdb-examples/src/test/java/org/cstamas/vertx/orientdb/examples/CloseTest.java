@@ -0,0 +1,40 @@
+package org.cstamas.vertx.orientdb.examples;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.vertx.ext.unit.TestContext;
+import org.junit.Test;
+
+/**
+ * Junit test.
+ */
+public class CloseTest
+    extends TestSupport
+{
+  @Test
+  public void closeDrainsInFlightOperations(final TestContext context) {
+    withDocumentDatabase(context, db -> {}, (db, async) -> {
+      AtomicBoolean done = new AtomicBoolean(false);
+      db.exec(cdb -> {
+        context.assertTrue(cdb.succeeded());
+        try {
+          Thread.sleep(200L);
+          // connection is still usable while close is waiting
+          cdb.result().getMetadata().getSchema().createClass("test");
+        }
+        catch (InterruptedException e) {
+          context.fail(e);
+        }
+        done.set(true);
+      });
+      vertx.setTimer(50L, t -> db.close(closed -> {
+        context.assertTrue(closed.succeeded());
+        context.assertTrue(done.get());
+        db.exec(after -> {
+          context.assertTrue(after.failed());
+          async.complete();
+        });
+      }));
+    });
+  }
+}
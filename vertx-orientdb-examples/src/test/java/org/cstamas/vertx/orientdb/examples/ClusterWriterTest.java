@@ -0,0 +1,68 @@
+package org.cstamas.vertx.orientdb.examples;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.ext.unit.TestContext;
+import org.cstamas.vertx.orientdb.ClusterWriter;
+import org.cstamas.vertx.orientdb.DatabaseMetrics;
+import org.cstamas.vertx.orientdb.OrientUtils;
+import org.junit.Test;
+
+/**
+ * Junit test.
+ */
+public class ClusterWriterTest
+    extends TestSupport
+{
+  @Test
+  public void clusterPerKey(final TestContext context) {
+    withDocumentDatabase(
+        context,
+        DatabaseMetrics.noop(),
+        conn -> conn.setMinimumClusters(4),
+        db -> {
+          context.assertEquals(4, db.getMetadata().getSchema().createClass("test").getClusterIds().length);
+          // name of next cluster is taken
+          int taken = db.addCluster("test_4");
+          OrientUtils.clusters("test", 6).handle(db);
+          context.assertFalse(db.getMetadata().getSchema().getClass("test").hasClusterId(taken));
+        },
+        (db, async) -> {
+          ClusterWriter writer = db.clusterWriter("test");
+          List<Future> saved = new ArrayList<>();
+          for (int i = 0; i < 12; i++) {
+            Future<ORID> rid = Future.future();
+            writer.save("key" + (i % 2), new ODocument("test").field("value", i), rid.completer());
+            saved.add(rid);
+          }
+          for (int i = 0; i < 12; i++) {
+            Future<ORID> rid = Future.future();
+            writer.save(new ODocument().field("value", i), rid.completer());
+            saved.add(rid);
+          }
+          CompositeFuture.all(saved).setHandler(all -> {
+            context.assertTrue(all.succeeded());
+            // same key lands in same cluster
+            for (int i = 2; i < 12; i++) {
+              context.assertEquals(
+                  ((ORID) all.result().resultAt(i - 2)).getClusterId(),
+                  ((ORID) all.result().resultAt(i)).getClusterId()
+              );
+            }
+            db.call(cdb -> cdb.getMetadata().getSchema().getClass("test").getClusterIds().length, clusters -> {
+              context.assertEquals(6, clusters.result());
+              db.call(cdb -> cdb.countClass("test"), count -> {
+                context.assertEquals(24L, count.result());
+                async.complete();
+              });
+            });
+          });
+        }
+    );
+  }
+}
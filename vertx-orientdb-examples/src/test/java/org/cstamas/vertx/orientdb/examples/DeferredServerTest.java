@@ -0,0 +1,59 @@
+package org.cstamas.vertx.orientdb.examples;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.cstamas.vertx.orientdb.ConnectionOptions;
+import org.cstamas.vertx.orientdb.Manager;
+import org.cstamas.vertx.orientdb.ManagerOptions;
+import org.cstamas.vertx.orientdb.StartupTiming;
+import org.junit.Test;
+
+/**
+ * Junit test.
+ */
+public class DeferredServerTest
+    extends TestSupport
+{
+  @Test
+  public void embeddedUsableBeforeServerActivated(final TestContext context) {
+    Manager manager = Manager.create(vertx, ManagerOptions.fromJsonObject(
+        new JsonObject()
+            .put("serverEnabled", true)
+            .put("deferServerActivation", true)
+            .put("orientHome", "target/withServer")
+    ));
+    Async opened = context.async();
+    Async activated = context.async();
+    manager.open(
+        o -> {
+          context.assertTrue(o.succeeded());
+          StartupTiming timing = manager.startupTiming();
+          context.assertTrue(timing.phases().containsKey("orient"));
+          context.assertTrue(timing.phases().containsKey("databases"));
+          ConnectionOptions conn = manager.memoryConnection(testName.getMethodName()).build();
+          manager.createDocumentInstance(conn, db -> db.getMetadata().getSchema().createClass("test"), created -> {
+            context.assertTrue(created.succeeded());
+            manager.documentInstance(conn.name(), adb -> adb.result().call(
+                db -> db.getMetadata().getSchema().existsClass("test"),
+                exists -> {
+                  context.assertTrue(exists.succeeded());
+                  context.assertTrue(exists.result());
+                  opened.complete();
+                }
+            ));
+          });
+        },
+        a -> {
+          context.assertTrue(a.succeeded());
+          StartupTiming timing = manager.startupTiming();
+          context.assertTrue(timing.phases().containsKey("serverStartup"));
+          context.assertTrue(timing.phases().containsKey("serverActivate"));
+          activated.complete();
+        }
+    );
+    opened.await();
+    activated.await();
+    manager.close(context.asyncAssertSuccess());
+  }
+}
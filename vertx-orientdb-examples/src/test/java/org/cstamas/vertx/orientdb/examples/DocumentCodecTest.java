@@ -0,0 +1,96 @@
+package org.cstamas.vertx.orientdb.examples;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.TestContext;
+import org.cstamas.vertx.orientdb.ODocumentCodec;
+import org.cstamas.vertx.orientdb.ODocumentListCodec;
+import org.cstamas.vertx.orientdb.examples.service.BinaryDocumentService;
+import org.cstamas.vertx.orientdb.examples.service.impl.BinaryDocumentServiceImpl;
+import org.junit.Test;
+
+/**
+ * Junit test.
+ */
+public class DocumentCodecTest
+    extends TestSupport
+{
+  @Test
+  public void wireRoundTrip(final TestContext context) {
+    ODocument embedded = new ODocument().field("street", "Main");
+    ODocument document = new ODocument("test")
+        .field("name", "name")
+        .field("value", 42)
+        .field("tags", Arrays.asList("a", "b"))
+        .field("address", embedded, OType.EMBEDDED);
+    ODocumentCodec codec = new ODocumentCodec();
+    Buffer buffer = Buffer.buffer().appendString("prefix");
+    codec.encodeToWire(buffer, document);
+
+    ODocument decoded = codec.decodeFromWire(6, buffer);
+    context.assertEquals("test", decoded.getClassName());
+    context.assertEquals("name", decoded.field("name"));
+    context.assertEquals(42, decoded.field("value"));
+    context.assertEquals(Arrays.asList("a", "b"), decoded.field("tags"));
+    context.assertEquals("Main", decoded.<ODocument>field("address").field("street"));
+    context.assertEquals(document.getIdentity(), decoded.getIdentity());
+    // delivered locally as a copy
+    ODocument transformed = codec.transform(document);
+    context.assertFalse(transformed == document);
+    context.assertEquals("name", transformed.field("name"));
+    context.assertEquals(document.getIdentity(), transformed.getIdentity());
+
+    ODocumentListCodec listCodec = new ODocumentListCodec();
+    buffer = Buffer.buffer();
+    listCodec.encodeToWire(buffer, Arrays.asList(document, new ODocument("other").field("value", 1)));
+    List<ODocument> documents = listCodec.decodeFromWire(0, buffer);
+    context.assertEquals(2, documents.size());
+    context.assertEquals("name", documents.get(0).field("name"));
+    context.assertEquals("other", documents.get(1).getClassName());
+    List<ODocument> transformedList = listCodec.transform(documents);
+    context.assertFalse(transformedList == documents);
+    context.assertFalse(transformedList.get(0) == documents.get(0));
+    context.assertEquals("other", transformedList.get(1).getClassName());
+  }
+
+  @Test
+  public void binaryService(final TestContext context) {
+    withDocumentDatabase(context, db -> db.getMetadata().getSchema().createClass("test"), (db, async) -> {
+      BinaryDocumentService.registerService(vertx, new BinaryDocumentServiceImpl(db), "binary");
+      BinaryDocumentService service = BinaryDocumentService.createProxy(vertx, "binary");
+      service.insert(new ODocument("test").field("name", "name").field("value", 1), inserted -> {
+        context.assertTrue(inserted.succeeded());
+        service.select("test", new JsonObject().put("name", "name"), selected -> {
+          context.assertTrue(selected.succeeded());
+          context.assertEquals(1, selected.result().size());
+          ODocument document = selected.result().get(0);
+          context.assertEquals(inserted.result(), document.getIdentity().toString());
+          context.assertEquals(1, document.field("value"));
+
+          // on wire, identity and version are kept
+          ODocumentListCodec codec = new ODocumentListCodec();
+          Buffer buffer = Buffer.buffer();
+          codec.encodeToWire(buffer, Collections.singletonList(document));
+          ODocument decoded = codec.decodeFromWire(0, buffer).get(0);
+          context.assertEquals(document.getIdentity(), decoded.getIdentity());
+          context.assertEquals(document.getVersion(), decoded.getVersion());
+          context.assertEquals("test", decoded.getClassName());
+
+          service.select("test; drop", new JsonObject(), invalidClass -> {
+            context.assertTrue(invalidClass.failed());
+            service.select("test", new JsonObject().put("name = name or true", ""), invalidField -> {
+              context.assertTrue(invalidField.failed());
+              async.complete();
+            });
+          });
+        });
+      });
+    });
+  }
+}
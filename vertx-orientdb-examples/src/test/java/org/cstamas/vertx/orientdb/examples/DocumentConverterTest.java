@@ -0,0 +1,169 @@
+package org.cstamas.vertx.orientdb.examples;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.TestContext;
+import org.cstamas.vertx.orientdb.DocumentConverter;
+import org.cstamas.vertx.orientdb.DocumentConverter.BinaryMode;
+import org.cstamas.vertx.orientdb.DocumentConverter.DateMode;
+import org.cstamas.vertx.orientdb.DocumentConverter.EmbeddedMode;
+import org.cstamas.vertx.orientdb.DocumentConverter.LinkMode;
+import org.junit.Test;
+
+/**
+ * Junit test.
+ */
+public class DocumentConverterTest
+    extends TestSupport
+{
+  @Test
+  public void convert(final TestContext context) {
+    ODocument document = new ODocument("test")
+        .field("name", "name")
+        .field("short", (short) 2)
+        .field("decimal", new BigDecimal("1.10"))
+        .field("date", new Date(0L))
+        .field("bytes", new byte[]{1, 2, 3})
+        .field("tags", Arrays.asList("a", "b"))
+        .field("map", Collections.singletonMap("key", 1))
+        .field("address", new ODocument("address").field("street", "Main"), OType.EMBEDDED)
+        .field("nothing", (Object) null);
+
+    JsonObject json = DocumentConverter.DEFAULT.toJson(document);
+    context.assertEquals("test", json.getString("@class"));
+    context.assertFalse(json.containsKey("@rid"));
+    context.assertEquals("name", json.getString("name"));
+    context.assertEquals(2, json.getInteger("short"));
+    context.assertEquals("1.10", json.getString("decimal"));
+    context.assertEquals(0L, json.getLong("date"));
+    context.assertTrue(Arrays.equals(new byte[]{1, 2, 3}, json.getBinary("bytes")));
+    context.assertEquals(new JsonArray().add("a").add("b"), json.getJsonArray("tags"));
+    context.assertEquals(new JsonObject().put("key", 1), json.getJsonObject("map"));
+    context.assertEquals(new JsonObject().put("@class", "address").put("street", "Main"), json.getJsonObject("address"));
+    context.assertTrue(json.containsKey("nothing"));
+
+    DocumentConverter plain = new DocumentConverter(
+        false, LinkMode.SKIP, EmbeddedMode.SKIP, DateMode.ISO_8601, BinaryMode.SKIP
+    );
+    json = plain.toJson(document);
+    context.assertFalse(json.containsKey("@class"));
+    context.assertEquals("1970-01-01T00:00:00Z", json.getString("date"));
+    context.assertFalse(json.containsKey("bytes"));
+    context.assertFalse(json.containsKey("address"));
+
+    ODocument back = DocumentConverter.DEFAULT.toDocument(new JsonObject()
+        .put("@class", "test")
+        .put("@rid", "#9:1")
+        .put("@version", 3)
+        .put("name", "name")
+        .put("tags", new JsonArray().add("a"))
+        .put("address", new JsonObject().put("street", "Main")));
+    context.assertEquals("test", back.getClassName());
+    context.assertEquals("#9:1", back.getIdentity().toString());
+    context.assertEquals(3, back.getVersion());
+    context.assertEquals("name", back.field("name"));
+    context.assertEquals(Collections.singletonList("a"), back.field("tags"));
+    context.assertEquals(OType.EMBEDDED, back.fieldType("address"));
+    context.assertEquals("Main", back.<ODocument>field("address").field("street"));
+
+    // without schema, only expanded links are restored
+    back = DocumentConverter.DEFAULT.toDocument(new JsonObject()
+        .put("link", "#9:1")
+        .put("expanded", new JsonObject().put("@rid", "#9:2").put("name", "name")));
+    context.assertEquals("#9:1", back.field("link"));
+    context.assertEquals(new ORecordId("#9:2"), back.rawField("expanded"));
+  }
+
+  @Test
+  public void roundTrip(final TestContext context) {
+    DocumentConverter iso = new DocumentConverter(
+        true, LinkMode.EXPAND, EmbeddedMode.OBJECT, DateMode.ISO_8601, BinaryMode.BASE64
+    );
+    withDocumentDatabase(
+        context,
+        db -> {
+          db.getMetadata().getSchema().createClass("target");
+          OClass test = db.getMetadata().getSchema().createClass("test");
+          test.createProperty("link", OType.LINK);
+          test.createProperty("links", OType.LINKLIST);
+          test.createProperty("date", OType.DATETIME);
+          test.createProperty("bytes", OType.BINARY);
+          test.createProperty("decimal", OType.DECIMAL);
+          test.createProperty("map", OType.EMBEDDEDMAP);
+        },
+        (database, async) -> database.call(db -> {
+          ODocument target = db.save(new ODocument("target").field("name", "target"));
+          ODocument test = db.save(new ODocument("test")
+              .field("link", target)
+              .field("links", Collections.singletonList(target))
+              .field("date", new Date(1000L))
+              .field("bytes", new byte[]{1, 2, 3})
+              .field("decimal", new BigDecimal("1.10"))
+              .field("map", Collections.singletonMap("key", 1)));
+          for (DocumentConverter converter : Arrays.asList(DocumentConverter.DEFAULT, iso)) {
+            ODocument back = converter.toDocument(converter.toJson(test));
+            context.assertEquals(test.getIdentity(), back.getIdentity());
+            context.assertEquals(target.getIdentity(), back.<OIdentifiable>field("link").getIdentity());
+            context.assertEquals(target.getIdentity(), back.<List<OIdentifiable>>field("links").get(0).getIdentity());
+            context.assertEquals(new Date(1000L), back.field("date"));
+            context.assertTrue(Arrays.equals(new byte[]{1, 2, 3}, back.field("bytes")));
+            context.assertEquals(new BigDecimal("1.10"), back.field("decimal"));
+            context.assertEquals(Collections.singletonMap("key", 1), back.field("map"));
+          }
+          return null;
+        }, result -> {
+          context.assertTrue(result.succeeded());
+          async.complete();
+        })
+    );
+  }
+
+  @Test
+  public void links(final TestContext context) {
+    DocumentConverter expand = new DocumentConverter(
+        true, LinkMode.EXPAND, EmbeddedMode.OBJECT, DateMode.EPOCH_MILLIS, BinaryMode.BASE64
+    );
+    withDocumentDatabase(
+        context,
+        db -> {
+          db.getMetadata().getSchema().createClass("target");
+          db.getMetadata().getSchema().createClass("test");
+        },
+        (database, async) -> database.call(db -> {
+          ODocument target = db.save(new ODocument("target").field("name", "target"));
+          ODocument test = db.save(new ODocument("test")
+              .field("link", target)
+              .field("links", Collections.singletonList(target), OType.LINKLIST)
+              .field("linkMap", Collections.singletonMap("key", target), OType.LINKMAP));
+          ODocument loaded = db.load(test.getIdentity(), null, true);
+          return new JsonArray()
+              .add(target.getIdentity().toString())
+              .add(DocumentConverter.DEFAULT.toJson(loaded))
+              .add(expand.toJson(loaded));
+        }, result -> {
+          context.assertTrue(result.succeeded());
+          String rid = result.result().getString(0);
+          JsonObject json = result.result().getJsonObject(1);
+          context.assertEquals(rid, json.getString("link"));
+          context.assertEquals(new JsonArray().add(rid), json.getJsonArray("links"));
+          context.assertEquals(new JsonObject().put("key", rid), json.getJsonObject("linkMap"));
+          JsonObject expanded = result.result().getJsonObject(2);
+          context.assertEquals("target", expanded.getJsonObject("link").getString("name"));
+          context.assertEquals(rid, expanded.getJsonObject("link").getString("@rid"));
+          context.assertEquals("target", expanded.getJsonArray("links").getJsonObject(0).getString("name"));
+          async.complete();
+        })
+    );
+  }
+}
@@ -0,0 +1,80 @@
+package org.cstamas.vertx.orientdb.examples;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.core.file.AsyncFile;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.TestContext;
+import org.junit.Test;
+
+/**
+ * Junit test.
+ */
+public class ExportTest
+    extends TestSupport
+{
+  @Test
+  public void exportNdjson(final TestContext context) throws IOException {
+    Path classFile = Paths.get("target", testName.getMethodName() + "-class.ndjson");
+    Path queryFile = Paths.get("target", testName.getMethodName() + "-query.ndjson");
+    Files.deleteIfExists(classFile);
+    Files.deleteIfExists(queryFile);
+
+    withDocumentDatabase(context, db -> db.getMetadata().getSchema().createClass("test"), (db, async) -> {
+      db.call(cdb -> {
+        cdb.begin();
+        for (int i = 0; i < 2500; i++) {
+          cdb.save(new ODocument("test").field("value", i));
+        }
+        cdb.commit();
+        return null;
+      }, inserted -> {
+        context.assertTrue(inserted.succeeded());
+        OpenOptions write = new OpenOptions().setWrite(true).setCreate(true);
+        vertx.fileSystem().open(classFile.toString(), write, cf -> {
+          AsyncFile classTarget = cf.result().setWriteQueueMaxSize(1024);
+          db.exportClass("test", classTarget, classExported -> {
+            context.assertTrue(classExported.succeeded());
+            context.assertEquals(2500L, classExported.result());
+            classTarget.close(context.asyncAssertSuccess());
+            vertx.fileSystem().open(queryFile.toString(), write, qf -> {
+              AsyncFile queryTarget = qf.result().setWriteQueueMaxSize(1024);
+              db.exportQuery("select from test where value < :limit", Collections.singletonMap("limit", 100),
+                  queryTarget, queryExported -> {
+                    context.assertTrue(queryExported.succeeded());
+                    context.assertEquals(100L, queryExported.result());
+                    queryTarget.close(closed -> {
+                      context.assertTrue(closed.succeeded());
+                      async.complete();
+                    });
+                  });
+            });
+          });
+        });
+      });
+    });
+
+    List<String> classLines = Files.readAllLines(classFile, StandardCharsets.UTF_8);
+    context.assertEquals(2500, classLines.size());
+    // class has many clusters, so documents come in cluster order
+    Set<Integer> values = new HashSet<>();
+    for (String line : classLines) {
+      JsonObject document = new JsonObject(line);
+      context.assertEquals("test", document.getString("@class"));
+      context.assertFalse(document.containsKey("@rid"));
+      values.add(document.getInteger("value"));
+    }
+    context.assertEquals(2500, values.size());
+    context.assertEquals(100, Files.readAllLines(queryFile, StandardCharsets.UTF_8).size());
+  }
+}
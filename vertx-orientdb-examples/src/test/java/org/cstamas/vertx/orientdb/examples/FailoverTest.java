@@ -0,0 +1,67 @@
+package org.cstamas.vertx.orientdb.examples;
+
+import java.util.Arrays;
+
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.cstamas.vertx.orientdb.ConnectionOptions;
+import org.cstamas.vertx.orientdb.DocumentDatabase;
+import org.cstamas.vertx.orientdb.Manager;
+import org.cstamas.vertx.orientdb.ManagerOptions;
+import org.junit.Test;
+
+/**
+ * Junit test.
+ */
+public class FailoverTest
+    extends TestSupport
+{
+  @Test
+  public void failover(final TestContext context) {
+    Manager manager = Manager.create(vertx, ManagerOptions.fromJsonObject(
+        new JsonObject()
+            .put("serverEnabled", true)
+            .put("orientHome", "target/withServer")
+    ));
+    String serverName = testName.getMethodName() + "_server";
+    Async async = context.async();
+    manager.open(context.asyncAssertSuccess(opened -> manager.createDocumentInstance(
+        manager.plocalConnection(serverName).build(),
+        db -> {
+          // database is persistent, and may exist from previous run
+          if (!db.getMetadata().getSchema().existsClass("test")) {
+            db.getMetadata().getSchema().createClass("test");
+          }
+        },
+        context.asyncAssertSuccess(served -> {
+          // primary is not listening, the embedded server is
+          ConnectionOptions conn = manager.remoteConnection(
+              testName.getMethodName(), Arrays.asList("localhost:2499", "localhost:2424"), serverName
+          ).setHealthCheck(100L, 1000L, 60000L).build();
+          manager.createDocumentInstance(conn, db -> {}, context.asyncAssertSuccess(created ->
+              manager.documentInstance(conn.name(), context.asyncAssertSuccess(db ->
+                  // read-only operations are routed too
+                  db.callReadOnly(cdb -> cdb.countClass("test"), context.asyncAssertSuccess(before ->
+                      db.call(cdb -> cdb.save(new ODocument("test").field("value", 1)).getDatabase().getURL(),
+                          context.asyncAssertSuccess(r1 -> {
+                            context.assertEquals("remote:localhost:2424/" + serverName, r1);
+                            db.call(cdb -> cdb.save(new ODocument("test").field("value", 2)).getDatabase().getURL(),
+                                context.asyncAssertSuccess(r2 -> {
+                                  context.assertEquals("remote:localhost:2424/" + serverName, r2);
+                                  db.callReadOnly(cdb -> cdb.countClass("test"), context.asyncAssertSuccess(after -> {
+                                    context.assertEquals(before + 2L, after);
+                                    async.complete();
+                                  }));
+                                }));
+                          }))
+                  ))
+              ))
+          ));
+        })
+    )));
+    async.await();
+    manager.close(context.asyncAssertSuccess());
+  }
+}
@@ -0,0 +1,61 @@
+package org.cstamas.vertx.orientdb.examples;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.ext.unit.TestContext;
+import org.cstamas.vertx.orientdb.Aggregate;
+import org.cstamas.vertx.orientdb.DatabaseMetrics;
+import org.junit.Test;
+
+/**
+ * Junit test.
+ */
+public class FanOutQueryTest
+    extends TestSupport
+{
+  @Test
+  public void fanOut(final TestContext context) {
+    withDocumentDatabase(
+        context,
+        DatabaseMetrics.noop(),
+        conn -> conn.setMinimumClusters(4),
+        db -> {
+          db.getMetadata().getSchema().createClass("test");
+          for (int i = 0; i < 100; i++) {
+            db.save(new ODocument("test").field("value", i));
+          }
+        },
+        (db, async) -> db.fanOutQuery("test", "value < :max", Collections.singletonMap("max", 50), concat -> {
+          context.assertTrue(concat.succeeded());
+          context.assertEquals(50, concat.result().size());
+          db.fanOutQuery("test", null, null, "value desc", 10, ordered -> {
+            context.assertTrue(ordered.succeeded());
+            List<Integer> values = ordered.result().stream()
+                .map(d -> d.<Integer>field("value"))
+                .collect(Collectors.toList());
+            context.assertEquals(
+                Arrays.asList(99, 98, 97, 96, 95, 94, 93, 92, 91, 90),
+                values
+            );
+            db.fanOutAggregate("test", null, null, Aggregate.COUNT, null, count -> {
+              context.assertEquals(100L, count.result());
+              db.fanOutAggregate("test", null, null, Aggregate.SUM, "value", sum -> {
+                context.assertEquals(4950L, ((Number) sum.result()).longValue());
+                db.fanOutAggregate("test", "value > 10", null, Aggregate.MIN, "value", min -> {
+                  context.assertEquals(11, ((Number) min.result()).intValue());
+                  db.fanOutAggregate("test", null, null, Aggregate.MAX, "value", max -> {
+                    context.assertEquals(99, ((Number) max.result()).intValue());
+                    async.complete();
+                  });
+                });
+              });
+            });
+          });
+        })
+    );
+  }
+}
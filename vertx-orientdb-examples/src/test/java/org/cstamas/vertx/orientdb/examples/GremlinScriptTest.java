@@ -0,0 +1,69 @@
+package org.cstamas.vertx.orientdb.examples;
+
+import java.util.Collections;
+
+import com.tinkerpop.blueprints.Vertex;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.cstamas.vertx.orientdb.CacheStats;
+import org.cstamas.vertx.orientdb.ConnectionOptions;
+import org.cstamas.vertx.orientdb.GraphDatabase;
+import org.cstamas.vertx.orientdb.Manager;
+import org.cstamas.vertx.orientdb.ManagerOptions;
+import org.cstamas.vertx.orientdb.examples.service.impl.GraphDatabaseServiceImpl;
+import org.cstamas.vertx.orientdb.examples.service.impl.GremlinScriptExecutor;
+import org.junit.Test;
+
+/**
+ * Junit test.
+ */
+public class GremlinScriptTest
+    extends TestSupport
+{
+  private static final String SCRIPT = "g.V('name', name).each { result.add(it.getProperty('name')) }";
+
+  @Test
+  public void compiledScriptIsReused(final TestContext context) {
+    Manager manager = Manager.create(vertx, ManagerOptions.fromJsonObject(
+        new JsonObject()
+            .put("serverEnabled", false)
+            .put("orientHome", "target/withoutServer")
+    ));
+    Async async = context.async();
+    manager.open(opened -> {
+      context.assertTrue(opened.succeeded());
+      ConnectionOptions conn = manager.memoryConnection(testName.getMethodName()).build();
+      manager.createGraphInstance(conn, notx -> notx.createKeyIndex("name", Vertex.class), created -> {
+        context.assertTrue(created.succeeded());
+        manager.graphInstance(conn.name(), adb -> {
+          GraphDatabase db = adb.result();
+          GremlinScriptExecutor executor = new GremlinScriptExecutor(10, 1);
+          GraphDatabaseServiceImpl service = new GraphDatabaseServiceImpl(db, executor);
+          db.exec(tx -> {
+            tx.result().addVertex(null).setProperty("name", "v1");
+            tx.result().addVertex(null).setProperty("name", "v2");
+            tx.result().commit();
+            service.gremlinScript(Collections.singletonMap("name", "v1"), SCRIPT, r1 -> {
+              context.assertTrue(r1.succeeded());
+              context.assertEquals(Collections.singletonList("v1"), r1.result());
+              service.gremlinScript(Collections.singletonMap("name", "v2"), SCRIPT, r2 -> {
+                context.assertTrue(r2.succeeded());
+                context.assertEquals(Collections.singletonList("v2"), r2.result());
+                CacheStats stats = executor.getScriptCacheStats();
+                context.assertEquals(1L, stats.size());
+                context.assertEquals(1L, stats.misses());
+                context.assertEquals(1L, stats.hits());
+                context.assertEquals(1L, executor.getCompileTime().count());
+                context.assertEquals(2L, executor.getExecuteTime().count());
+                async.complete();
+              });
+            });
+          });
+        });
+      });
+    });
+    async.await();
+    manager.close(context.asyncAssertSuccess());
+  }
+}
@@ -0,0 +1,56 @@
+package org.cstamas.vertx.orientdb.examples;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vertx.core.file.AsyncFile;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.TestContext;
+import org.cstamas.vertx.orientdb.ImportOptions;
+import org.junit.Test;
+
+/**
+ * Junit test.
+ */
+public class ImportTest
+    extends TestSupport
+{
+  @Test
+  public void importNdjson(final TestContext context) throws IOException {
+    Path ndjson = Paths.get("target", testName.getMethodName() + ".ndjson");
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 2500; i++) {
+      sb.append(new JsonObject().put("value", i).put("name", "document" + i).encode()).append('\n');
+      if (i % 1000 == 0) {
+        sb.append('\n');
+      }
+    }
+    // last line without newline
+    sb.append(new JsonObject().put("value", 2500).encode());
+    Files.write(ndjson, sb.toString().getBytes(StandardCharsets.UTF_8));
+
+    withDocumentDatabase(context, db -> db.getMetadata().getSchema().createClass("test"), (db, async) ->
+        vertx.fileSystem().open(ndjson.toString(), new OpenOptions().setRead(true), file -> {
+          context.assertTrue(file.succeeded());
+          AsyncFile source = file.result().setReadBufferSize(1024);
+          AtomicInteger reports = new AtomicInteger(0);
+          db.importJson("test", source, new ImportOptions(100, 2, 10L), progress -> reports.incrementAndGet(),
+              imported -> {
+                context.assertTrue(imported.succeeded());
+                context.assertEquals(2501L, imported.result().documents());
+                context.assertEquals(26L, imported.result().batches());
+                source.close();
+                db.call(cdb -> cdb.countClass("test"), count -> {
+                  context.assertEquals(2501L, count.result());
+                  async.complete();
+                });
+              });
+        })
+    );
+  }
+}
@@ -0,0 +1,59 @@
+package org.cstamas.vertx.orientdb.examples;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.unit.TestContext;
+import org.cstamas.vertx.orientdb.LiveEvent;
+import org.junit.Test;
+
+/**
+ * Junit test.
+ */
+public class LiveQueryTest
+    extends TestSupport
+{
+  @Test
+  public void liveEvents(final TestContext context) {
+    withDocumentDatabase(context, db -> db.getMetadata().getSchema().createClass("test"), (database, async) -> {
+      List<LiveEvent> events = new ArrayList<>();
+      ReadStream<LiveEvent> stream = database.liveQuery("select from test where value > :min",
+          new JsonObject().put("min", 0).getMap());
+      stream.exceptionHandler(context::fail);
+      stream.endHandler(v -> {
+        context.assertEquals(4, events.size());
+        async.complete();
+      });
+      stream.handler(event -> {
+        events.add(event);
+        if (events.size() == 3) {
+          context.assertEquals(LiveEvent.Type.CREATED, events.get(0).type());
+          context.assertEquals(LiveEvent.Type.UPDATED, events.get(1).type());
+          context.assertEquals(2, events.get(1).document().field("value"));
+          context.assertEquals(LiveEvent.Type.DELETED, events.get(2).type());
+          context.assertEquals("UPDATED", events.get(1).toJson().getString("type"));
+          stream.pause();
+          database.exec(wdb -> wdb.result().save(new ODocument("test").field("value", 3)));
+          vertx.setTimer(300L, t -> {
+            context.assertEquals(3, events.size());
+            stream.resume();
+          });
+        }
+        else if (events.size() == 4) {
+          context.assertEquals(3, event.document().field("value"));
+          database.close(context.asyncAssertSuccess());
+        }
+      });
+      database.exec(wdb -> {
+        // not matching the where condition
+        wdb.result().save(new ODocument("test").field("value", 0));
+        ODocument document = wdb.result().save(new ODocument("test").field("value", 1));
+        document.field("value", 2).save();
+        document.delete();
+      });
+    });
+  }
+}
@@ -0,0 +1,42 @@
+package org.cstamas.vertx.orientdb.examples;
+
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.ext.unit.TestContext;
+import org.cstamas.vertx.orientdb.HistogramMetrics;
+import org.cstamas.vertx.orientdb.OrientUtils;
+import org.junit.Test;
+
+/**
+ * Junit test.
+ */
+public class MetricsTest
+    extends TestSupport
+{
+  @Test
+  public void operationsAreMeasured(final TestContext context) {
+    HistogramMetrics metrics = new HistogramMetrics();
+    withDocumentDatabase(
+        context,
+        metrics,
+        conn -> conn,
+        db -> db.getMetadata().getSchema().createClass("test"),
+        (db, async) -> db.exec(cdb -> {
+          OrientUtils.retry(3, null, OrientUtils.tx(tx -> tx.save(new ODocument("test")))).handle(cdb.result());
+          // ordered execution: first operation is completely done when second one starts
+          db.exec(v -> {
+            HistogramMetrics.Stats stats = metrics.get(testName.getMethodName());
+            context.assertNotNull(stats);
+            context.assertEquals(1, stats.inFlight());
+            context.assertEquals(1L, stats.succeeded());
+            context.assertEquals(0L, stats.failed());
+            context.assertEquals(2L, stats.queueWait().count());
+            context.assertEquals(2L, stats.acquire().count());
+            context.assertEquals(1L, stats.execute().count());
+            context.assertEquals(1L, stats.attempts().count());
+            context.assertEquals(1L, stats.attempts().percentile(50));
+            async.complete();
+          });
+        })
+    );
+  }
+}
@@ -0,0 +1,126 @@
+package org.cstamas.vertx.orientdb.examples;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.cstamas.vertx.orientdb.ConnectionOptions;
+import org.cstamas.vertx.orientdb.Manager;
+import org.cstamas.vertx.orientdb.ManagerOptions;
+import org.junit.Test;
+
+/**
+ * Junit test.
+ */
+public class OrderedExecTest
+    extends TestSupport
+{
+  @Test
+  public void databasesAreOrderedSeparately(final TestContext context) {
+    Manager manager = Manager.create(vertx, ManagerOptions.fromJsonObject(
+        new JsonObject()
+            .put("serverEnabled", false)
+            .put("orientHome", "target/withoutServer")
+    ));
+    String slowName = testName.getMethodName() + "Slow";
+    String fastName = testName.getMethodName() + "Fast";
+    Async async = context.async();
+    vertx.runOnContext(start -> manager.open(context.asyncAssertSuccess(opened ->
+        manager.createDocumentInstance(manager.memoryConnection(slowName).build(), db -> {},
+            context.asyncAssertSuccess(slowCreated ->
+                manager.createDocumentInstance(manager.memoryConnection(fastName).build(), db -> {},
+                    context.asyncAssertSuccess(fastCreated ->
+                        manager.documentInstance(slowName, context.asyncAssertSuccess(slow ->
+                            manager.documentInstance(fastName, context.asyncAssertSuccess(fast -> {
+                              AtomicBoolean slowDone = new AtomicBoolean(false);
+                              slow.exec(true, cdb -> {
+                                try {
+                                  Thread.sleep(500L);
+                                }
+                                catch (InterruptedException e) {
+                                  context.fail(e);
+                                }
+                                slowDone.set(true);
+                              });
+                              // same context, but other database: does not wait for slow one
+                              fast.exec(true, cdb -> {
+                                context.assertFalse(slowDone.get());
+                                context.assertTrue(
+                                    Thread.currentThread().getName().startsWith("orientdb-" + fastName));
+                                async.complete();
+                              });
+                            }))
+                        ))
+                    ))
+            ))
+    )));
+    async.await();
+    manager.close(context.asyncAssertSuccess());
+  }
+
+  @Test
+  public void workersOutliveCreatorVerticle(final TestContext context) {
+    Manager manager = Manager.create(vertx, ManagerOptions.fromJsonObject(
+        new JsonObject()
+            .put("serverEnabled", false)
+            .put("orientHome", "target/withoutServer")
+    ));
+    ConnectionOptions conn = manager.memoryConnection(testName.getMethodName()).build();
+    Async async = context.async();
+    manager.open(context.asyncAssertSuccess(opened -> vertx.deployVerticle(
+        new AbstractVerticle()
+        {
+          @Override
+          public void start(final Future<Void> startFuture) {
+            manager.createDocumentInstance(conn, db -> {}, startFuture.completer());
+          }
+        },
+        context.asyncAssertSuccess(deploymentId -> vertx.undeploy(deploymentId, context.asyncAssertSuccess(v ->
+            manager.documentInstance(conn.name(), context.asyncAssertSuccess(db ->
+                db.call(cdb -> cdb.getName(), name -> {
+                  context.assertTrue(name.succeeded());
+                  async.complete();
+                })
+            ))
+        )))
+    )));
+    async.await();
+    manager.close(context.asyncAssertSuccess());
+  }
+
+  @Test
+  public void operationsOfContextAreOrdered(final TestContext context) {
+    int count = 200;
+    withDocumentDatabase(context, db -> {}, (db, async) -> {
+      List<Integer> executed = new ArrayList<>();
+      AtomicInteger running = new AtomicInteger(0);
+      AtomicInteger completed = new AtomicInteger(0);
+      for (int i = 0; i < count; i++) {
+        int index = i;
+        db.call(true, cdb -> {
+          context.assertEquals(1, running.incrementAndGet());
+          synchronized (executed) {
+            executed.add(index);
+          }
+          running.decrementAndGet();
+          return index;
+        }, context.asyncAssertSuccess(r -> {
+          if (completed.incrementAndGet() == count) {
+            synchronized (executed) {
+              for (int j = 0; j < count; j++) {
+                context.assertEquals(j, executed.get(j));
+              }
+            }
+            async.complete();
+          }
+        }));
+      }
+    });
+  }
+}
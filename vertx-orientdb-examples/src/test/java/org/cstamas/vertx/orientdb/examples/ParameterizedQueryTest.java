@@ -0,0 +1,38 @@
+package org.cstamas.vertx.orientdb.examples;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import io.vertx.ext.unit.TestContext;
+import org.junit.Test;
+
+/**
+ * Junit test.
+ */
+public class ParameterizedQueryTest
+    extends TestSupport
+{
+  @Test
+  public void parametersAreBound(final TestContext context) {
+    withDocumentDatabase(context, db -> db.getMetadata().getSchema().createClass("test"), (db, async) -> {
+      String insert = "insert into test set name = ?, value = ?";
+      db.command(insert, Arrays.asList("a", 1), i1 -> {
+        context.assertTrue(i1.succeeded());
+        db.command(insert, Arrays.asList("b' or '1'='1", 2), i2 -> {
+          context.assertTrue(i2.succeeded());
+          String select = "select from test where name = :name";
+          db.query(select, Collections.singletonMap("name", "a"), q1 -> {
+            context.assertTrue(q1.succeeded());
+            context.assertEquals(1, q1.result().size());
+            db.query(select, Collections.singletonMap("name", "x' or '1'='1"), q2 -> {
+              context.assertTrue(q2.succeeded());
+              // value is bound, not part of statement
+              context.assertEquals(0, q2.result().size());
+              async.complete();
+            });
+          });
+        });
+      });
+    });
+  }
+}
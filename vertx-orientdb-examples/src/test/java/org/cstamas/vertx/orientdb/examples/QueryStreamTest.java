@@ -0,0 +1,114 @@
+package org.cstamas.vertx.orientdb.examples;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.cstamas.vertx.orientdb.DatabaseOverloadedException;
+import org.cstamas.vertx.orientdb.Manager;
+import org.cstamas.vertx.orientdb.ManagerOptions;
+import org.cstamas.vertx.orientdb.impl.QueryStreamImpl;
+import org.junit.Test;
+
+/**
+ * Junit test.
+ */
+public class QueryStreamTest
+    extends TestSupport
+{
+  @Test
+  public void streamWithPause(final TestContext context) {
+    int count = 1000;
+    withDocumentDatabase(
+        context,
+        db -> {
+          db.getMetadata().getSchema().createClass("test");
+          for (int i = 0; i < count; i++) {
+            db.save(new ODocument("test").field("value", i));
+          }
+        },
+        (db, async) -> {
+          AtomicInteger received = new AtomicInteger(0);
+          ReadStream<JsonObject> stream = db
+              .queryJsonStream("select from test where value >= :min", Collections.singletonMap("min", 0));
+          stream.exceptionHandler(context::fail);
+          stream.endHandler(v -> {
+            context.assertEquals(count, received.get());
+            async.complete();
+          });
+          stream.handler(document -> {
+            if (received.incrementAndGet() % 100 == 0) {
+              // slow consumer
+              stream.pause();
+              vertx.setTimer(10L, t -> stream.resume());
+            }
+          });
+        }
+    );
+  }
+
+  @Test
+  public void pausedTooLong(final TestContext context) {
+    Async async = context.async(2);
+    AtomicInteger received = new AtomicInteger(0);
+    vertx.runOnContext(start -> {
+      QueryStreamImpl<Integer> stream = new QueryStreamImpl<>(vertx.getOrCreateContext(), "test", 2, 100L,
+          s -> vertx.<Boolean>executeBlocking(
+              f -> {
+                boolean offered = true;
+                for (int i = 0; i < 5 && offered; i++) {
+                  offered = s.offer(i);
+                }
+                f.complete(offered);
+              },
+              false,
+              context.asyncAssertSuccess(offered -> {
+                // buffer full and consumer paused longer than timeout: producer is told to stop
+                context.assertFalse(offered);
+                async.countDown();
+              })
+          ));
+      stream.endHandler(v -> context.fail("Stream should fail"));
+      stream.exceptionHandler(e -> {
+        // buffered items are delivered before failure
+        context.assertEquals(2, received.get());
+        context.assertTrue(e instanceof DatabaseOverloadedException);
+        async.countDown();
+      });
+      stream.pause();
+      stream.handler(i -> received.incrementAndGet());
+      vertx.setTimer(300L, t -> stream.resume());
+    });
+  }
+
+  @Test
+  public void rejectedOnEventLoop(final TestContext context) {
+    Manager manager = Manager.create(vertx, ManagerOptions.fromJsonObject(
+        new JsonObject()
+            .put("serverEnabled", false)
+            .put("useEventLoop", true)
+            .put("orientHome", "target/withoutServer")
+    ));
+    String name = testName.getMethodName();
+    Async async = context.async();
+    vertx.runOnContext(start -> manager.open(context.asyncAssertSuccess(opened ->
+        manager.createDocumentInstance(manager.memoryConnection(name).build(), db -> {},
+            context.asyncAssertSuccess(created -> manager.documentInstance(name, context.asyncAssertSuccess(db -> {
+              ReadStream<ODocument> stream = db.queryStream("select from OUser", null);
+              stream.endHandler(v -> context.fail("Stream should fail"));
+              stream.exceptionHandler(e -> {
+                context.assertTrue(e instanceof IllegalStateException);
+                async.complete();
+              });
+              stream.handler(document -> context.fail("No documents expected"));
+            })))
+        )
+    )));
+    async.await();
+    manager.close(context.asyncAssertSuccess());
+  }
+}
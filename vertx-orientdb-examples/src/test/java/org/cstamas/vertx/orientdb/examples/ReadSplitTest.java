@@ -0,0 +1,96 @@
+package org.cstamas.vertx.orientdb.examples;
+
+import java.util.Collections;
+
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.cstamas.vertx.orientdb.ConnectionOptions;
+import org.cstamas.vertx.orientdb.DocumentDatabase;
+import org.cstamas.vertx.orientdb.Manager;
+import org.cstamas.vertx.orientdb.ManagerOptions;
+import org.junit.Test;
+
+/**
+ * Junit test.
+ */
+public class ReadSplitTest
+    extends TestSupport
+{
+  @Test
+  public void readPool(final TestContext context) {
+    Manager manager = Manager.create(vertx, ManagerOptions.fromJsonObject(
+        new JsonObject()
+            .put("serverEnabled", false)
+            .put("orientHome", "target/withoutServer")
+    ));
+    Async async = context.async();
+    manager.open(opened -> {
+      context.assertTrue(opened.succeeded());
+      ConnectionOptions conn = manager.memoryConnection(testName.getMethodName()).setReadPool(2, 4).build();
+      manager.createDocumentInstance(conn, db -> db.getMetadata().getSchema().createClass("test"), created -> {
+        context.assertTrue(created.succeeded());
+        manager.documentInstance(conn.name(), adb -> {
+          DocumentDatabase db = adb.result();
+          db.call(cdb -> {
+            cdb.save(new ODocument("test").field("value", 1));
+            return Thread.currentThread().getName();
+          }, write -> {
+            context.assertTrue(write.succeeded());
+            context.assertFalse(write.result().startsWith("orientdb-" + conn.name() + "-read-"));
+            db.callReadOnly(cdb -> Thread.currentThread().getName() + ":" + cdb.countClass("test"), read -> {
+              context.assertTrue(read.succeeded());
+              // executed by dedicated read workers
+              context.assertTrue(read.result().startsWith("orientdb-" + conn.name() + "-read-"));
+              context.assertTrue(read.result().endsWith(":1"));
+              async.complete();
+            });
+          });
+        });
+      });
+    });
+    async.await();
+    manager.close(context.asyncAssertSuccess());
+  }
+
+  @Test
+  public void readReplica(final TestContext context) {
+    Manager manager = Manager.create(vertx, ManagerOptions.fromJsonObject(
+        new JsonObject()
+            .put("serverEnabled", false)
+            .put("orientHome", "target/withoutServer")
+    ));
+    Async async = context.async();
+    manager.open(opened -> {
+      context.assertTrue(opened.succeeded());
+      ConnectionOptions replica = manager.memoryConnection(testName.getMethodName() + "-replica").build();
+      manager.createDocumentInstance(replica, rdb -> {
+        rdb.getMetadata().getSchema().createClass("test");
+        rdb.save(new ODocument("test").field("value", 1));
+        rdb.save(new ODocument("test").field("value", 2));
+      }, replicaCreated -> {
+        context.assertTrue(replicaCreated.succeeded());
+        ConnectionOptions conn = manager.memoryConnection(testName.getMethodName())
+            .addReadUri(replica.uri())
+            .build();
+        manager.createDocumentInstance(conn, db -> db.getMetadata().getSchema().createClass("test"), created -> {
+          context.assertTrue(created.succeeded());
+          manager.documentInstance(conn.name(), adb -> {
+            DocumentDatabase db = adb.result();
+            db.call(cdb -> cdb.countClass("test"), write -> {
+              context.assertEquals(0L, write.result());
+              db.query("select count(*) as count from test", Collections.emptyList(), read -> {
+                context.assertTrue(read.succeeded());
+                context.assertEquals(2L, read.result().get(0).field("count"));
+                async.complete();
+              });
+            });
+          });
+        });
+      });
+    });
+    async.await();
+    manager.close(context.asyncAssertSuccess());
+  }
+}
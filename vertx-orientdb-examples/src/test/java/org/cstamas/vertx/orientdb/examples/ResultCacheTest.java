@@ -0,0 +1,83 @@
+package org.cstamas.vertx.orientdb.examples;
+
+import java.util.Collections;
+import java.util.Map;
+
+import io.vertx.ext.unit.TestContext;
+import org.cstamas.vertx.orientdb.CacheStats;
+import org.cstamas.vertx.orientdb.DatabaseMetrics;
+import org.junit.Test;
+
+/**
+ * Junit test.
+ */
+public class ResultCacheTest
+    extends TestSupport
+{
+  @Test
+  public void resultsAreCachedAndInvalidated(final TestContext context) {
+    withDocumentDatabase(
+        context,
+        DatabaseMetrics.noop(),
+        conn -> conn.setResultCache(10, 60000L),
+        db -> db.getMetadata().getSchema().createClass("test"),
+        (db, async) -> {
+          String insert = "insert into test set name = :name";
+          String select = "select count(*) as count from test";
+          Map<String, Object> noParams = Collections.emptyMap();
+          db.command(insert, Collections.singletonMap("name", "a"), i1 -> {
+            context.assertTrue(i1.succeeded());
+            db.query(select, noParams, q1 -> {
+              context.assertTrue(q1.succeeded());
+              context.assertEquals(1L, q1.result().get(0).field("count"));
+              // caller owns the result, modifying it does not affect cached one
+              q1.result().get(0).field("count", 42L);
+              db.query(select, noParams, q2 -> {
+                context.assertTrue(q2.succeeded());
+                context.assertEquals(1L, q2.result().get(0).field("count"));
+                q2.result().get(0).field("count", 43L);
+                CacheStats stats = db.getResultCacheStats();
+                context.assertEquals(1L, stats.size());
+                context.assertEquals(1L, stats.hits());
+                context.assertEquals(1L, stats.misses());
+                db.query(select, noParams, q2b -> {
+                  context.assertTrue(q2b.succeeded());
+                  context.assertEquals(1L, q2b.result().get(0).field("count"));
+                });
+                db.command(insert, Collections.singletonMap("name", "b"), i2 -> {
+                  context.assertTrue(i2.succeeded());
+                  db.query(select, noParams, q3 -> {
+                    context.assertTrue(q3.succeeded());
+                    // insert invalidated cached result
+                    context.assertEquals(2L, q3.result().get(0).field("count"));
+                    CacheStats stats3 = db.getResultCacheStats();
+                    context.assertEquals(2L, stats3.hits());
+                    context.assertEquals(2L, stats3.misses());
+                    // select inspected once, commands are not inspected
+                    CacheStats inspections = db.getStatementInspectionStats();
+                    context.assertEquals(1L, inspections.size());
+                    context.assertEquals(1L, inspections.hits());
+                    context.assertEquals(1L, inspections.misses());
+                    // subquery reads a class the cache cannot track
+                    String subquery = "select from test where name in (select name from test where name = 'a')";
+                    db.query(subquery, noParams, s1 -> {
+                      context.assertTrue(s1.succeeded());
+                      db.query(subquery, noParams, s2 -> {
+                        context.assertTrue(s2.succeeded());
+                        context.assertEquals(1, s2.result().size());
+                        CacheStats stats4 = db.getResultCacheStats();
+                        context.assertEquals(1L, stats4.size());
+                        context.assertEquals(2L, stats4.hits());
+                        context.assertEquals(4L, stats4.misses());
+                        async.complete();
+                      });
+                    });
+                  });
+                });
+              });
+            });
+          });
+        }
+    );
+  }
+}
@@ -0,0 +1,46 @@
+package org.cstamas.vertx.orientdb.examples;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.orientechnologies.orient.core.exception.OConcurrentModificationException;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.ext.unit.TestContext;
+import org.cstamas.vertx.orientdb.OrientUtils;
+import org.cstamas.vertx.orientdb.RetryPolicy;
+import org.junit.Test;
+
+/**
+ * Junit test.
+ */
+public class RetryTest
+    extends TestSupport
+{
+  @Test
+  public void retryWithBackoff(final TestContext context) {
+    withDocumentDatabase(context, db -> db.getMetadata().getSchema().createClass("test"), (db, async) -> {
+      AtomicInteger calls = new AtomicInteger(0);
+      db.retry(new RetryPolicy(5, 5L, 20L), OrientUtils.tx(cdb -> {
+        cdb.save(new ODocument("test").field("value", calls.get()));
+        if (calls.incrementAndGet() < 3) {
+          // simulate conflicting writer
+          throw new OConcurrentModificationException(new ORecordId(9, 0), 2, 1, 1);
+        }
+      }), r1 -> {
+        context.assertTrue(r1.succeeded());
+        context.assertEquals(3, r1.result());
+        db.retry(new RetryPolicy(2, 5L, 20L), cdb -> {
+          throw new OConcurrentModificationException(new ORecordId(9, 0), 2, 1, 1);
+        }, r2 -> {
+          context.assertTrue(r2.failed());
+          context.assertTrue(r2.cause() instanceof OConcurrentModificationException);
+          db.exec(cdb -> {
+            // attempts rolled back
+            context.assertEquals(1L, cdb.result().countClass("test"));
+            async.complete();
+          });
+        });
+      });
+    });
+  }
+}
@@ -0,0 +1,71 @@
+package org.cstamas.vertx.orientdb.examples;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.cstamas.vertx.orientdb.Manager;
+import org.cstamas.vertx.orientdb.ManagerOptions;
+import org.cstamas.vertx.orientdb.StartupTiming;
+import org.junit.Test;
+
+/**
+ * Junit test.
+ */
+public class StartupTest
+    extends TestSupport
+{
+  @Test
+  public void declaredDatabasesOpenedConcurrently(final TestContext context) {
+    AtomicInteger active = new AtomicInteger(0);
+    AtomicInteger maxActive = new AtomicInteger(0);
+    Handler<ODatabaseDocumentTx> init = db -> {
+      maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+      try {
+        db.getMetadata().getSchema().createClass("test");
+        Thread.sleep(300L);
+      }
+      catch (InterruptedException e) {
+        context.fail(e);
+      }
+      finally {
+        active.decrementAndGet();
+      }
+    };
+    String name = testName.getMethodName();
+    Manager manager = Manager.create(vertx, ManagerOptions.fromJsonObject(
+        new JsonObject()
+            .put("serverEnabled", false)
+            .put("orientHome", "target/withoutServer")
+            .put("startupConcurrency", 2)
+    )
+        .withDatabase(m -> m.memoryConnection(name + "1").build(), init)
+        .withDatabase(m -> m.memoryConnection(name + "2").build(), init)
+        .withDatabase(m -> m.memoryConnection(name + "3").build(), init));
+    Async async = context.async();
+    manager.open(opened -> {
+      context.assertTrue(opened.succeeded());
+      context.assertEquals(2, maxActive.get());
+      for (int i = 1; i <= 3; i++) {
+        StartupTiming timing = manager.startupTiming(name + i);
+        context.assertNotNull(timing);
+        context.assertTrue(timing.phases().get("init") >= 300_000_000L);
+        context.assertTrue(timing.phases().containsKey("open"));
+        context.assertTrue(timing.phases().containsKey("pools"));
+      }
+      manager.documentInstance(name + "3", adb -> {
+        context.assertTrue(adb.succeeded());
+        adb.result().call(db -> db.getMetadata().getSchema().existsClass("test"), exists -> {
+          context.assertTrue(exists.succeeded());
+          context.assertTrue(exists.result());
+          async.complete();
+        });
+      });
+    });
+    async.await();
+    manager.close(context.asyncAssertSuccess());
+  }
+}
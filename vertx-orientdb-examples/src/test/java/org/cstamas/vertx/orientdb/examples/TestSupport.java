@@ -1,9 +1,21 @@
 package org.cstamas.vertx.orientdb.examples;
 
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
+
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.SLF4JLogDelegateFactory;
+import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.cstamas.vertx.orientdb.ConnectionOptions;
+import org.cstamas.vertx.orientdb.DatabaseMetrics;
+import org.cstamas.vertx.orientdb.DocumentDatabase;
+import org.cstamas.vertx.orientdb.Manager;
+import org.cstamas.vertx.orientdb.ManagerOptions;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -39,4 +51,43 @@ public abstract class TestSupport
   public void tearDown(TestContext context) {
     vertx.close(context.asyncAssertSuccess());
   }
+
+  /**
+   * Creates a memory document database named as the test, without server, initialized with given handler, and hands
+   * it to the test. Returns when the test completed the passed in {@link Async}, with manager closed.
+   */
+  protected void withDocumentDatabase(final TestContext context,
+                                      final Handler<ODatabaseDocumentTx> initializer,
+                                      final BiConsumer<DocumentDatabase, Async> test)
+  {
+    withDocumentDatabase(context, DatabaseMetrics.noop(), UnaryOperator.identity(), initializer, test);
+  }
+
+  /**
+   * Same as {@link #withDocumentDatabase(TestContext, Handler, BiConsumer)}, with metrics and connection options
+   * customized.
+   */
+  protected void withDocumentDatabase(final TestContext context,
+                                      final DatabaseMetrics metrics,
+                                      final UnaryOperator<ConnectionOptions.Builder> connection,
+                                      final Handler<ODatabaseDocumentTx> initializer,
+                                      final BiConsumer<DocumentDatabase, Async> test)
+  {
+    Manager manager = Manager.create(vertx, ManagerOptions.fromJsonObject(
+        new JsonObject()
+            .put("serverEnabled", false)
+            .put("orientHome", "target/withoutServer")
+    ), metrics);
+    Async async = context.async();
+    // everything happens on same context, as it would in a verticle
+    vertx.runOnContext(start -> manager.open(opened -> {
+      context.assertTrue(opened.succeeded());
+      ConnectionOptions conn = connection.apply(manager.memoryConnection(testName.getMethodName())).build();
+      manager.createDocumentInstance(conn, initializer, context.asyncAssertSuccess(created ->
+          manager.documentInstance(conn.name(), context.asyncAssertSuccess(db -> test.accept(db, async)))
+      ));
+    }));
+    async.await();
+    manager.close(context.asyncAssertSuccess());
+  }
 }
@@ -0,0 +1,50 @@
+package org.cstamas.vertx.orientdb.examples;
+
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.ext.unit.TestContext;
+import org.cstamas.vertx.orientdb.HistogramMetrics;
+import org.junit.Test;
+
+/**
+ * Junit test.
+ */
+public class WarmUpTest
+    extends TestSupport
+{
+  @Test
+  public void warmUpBeforeCreated(final TestContext context) {
+    HistogramMetrics metrics = new HistogramMetrics();
+    withDocumentDatabase(
+        context,
+        metrics,
+        conn -> conn
+            .setWorkerPoolSize(4)
+            .setReadPool(2, 2)
+            .setWarmUpConnections(8)
+            .addWarmUpIndex("test.value")
+            .addWarmUpIndex("missing")
+            .addWarmUpClass("test"),
+        db -> {
+          OClass test = db.getMetadata().getSchema().createClass("test");
+          test.createProperty("value", OType.INTEGER).createIndex(OClass.INDEX_TYPE.UNIQUE);
+          for (int i = 0; i < 100; i++) {
+            db.save(new ODocument("test").field("value", i));
+          }
+        },
+        (db, async) -> {
+          // database is handed over once created
+          HistogramMetrics.Stats stats = metrics.get(testName.getMethodName());
+          context.assertNotNull(stats);
+          context.assertTrue(stats.warmUp() > 0L);
+          context.assertEquals(0L, stats.succeeded());
+          db.callReadOnly(cdb -> cdb.countClass("test"), count -> {
+            context.assertTrue(count.succeeded());
+            context.assertEquals(100L, count.result());
+            async.complete();
+          });
+        }
+    );
+  }
+}
@@ -0,0 +1,28 @@
+package org.cstamas.vertx.orientdb;
+
+/**
+ * Aggregates supported by {@link DocumentDatabase#fanOutAggregate(String, String, java.util.Map, Aggregate, String,
+ * io.vertx.core.Handler)}, that can be computed per cluster and then combined.
+ */
+public enum Aggregate
+{
+  /**
+   * The count of documents, as {@link Long}. Field is not used.
+   */
+  COUNT,
+
+  /**
+   * The sum of field values, as {@link Long} if all partial sums are integral, {@link Double} otherwise.
+   */
+  SUM,
+
+  /**
+   * The smallest field value, or {@code null} if there are no values.
+   */
+  MIN,
+
+  /**
+   * The largest field value, or {@code null} if there are no values.
+   */
+  MAX
+}
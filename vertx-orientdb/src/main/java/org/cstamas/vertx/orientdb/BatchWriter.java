@@ -0,0 +1,30 @@
+package org.cstamas.vertx.orientdb;
+
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Closeable;
+import io.vertx.core.Handler;
+
+/**
+ * Write coalescing writer, created with {@link DocumentDatabase#batchWriter(int, long)}. Documents saved by (possibly
+ * many) callers are gathered into batches, and each batch is saved in single transaction, hence paying the commit
+ * cost only once per batch. Closing the writer flushes pending documents, and writer will not accept new documents
+ * after being closed.
+ */
+public interface BatchWriter
+    extends Closeable
+{
+  /**
+   * Saves the document in some subsequent batch. The handler is invoked on the context of caller, with the identity
+   * of saved document, once the batch containing it is committed. If the batch commit fails due to an invalid,
+   * conflicting or duplicate document, the batch is split and retried, so such document fails only it's own handler.
+   * Other failures fail the whole batch.
+   */
+  BatchWriter save(ODocument document, Handler<AsyncResult<ORID>> handler);
+
+  /**
+   * Flushes the currently pending documents as a batch, without waiting for batch to fill up or linger to pass.
+   */
+  BatchWriter flush();
+}
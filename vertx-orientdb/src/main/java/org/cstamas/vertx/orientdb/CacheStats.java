@@ -0,0 +1,59 @@
+package org.cstamas.vertx.orientdb;
+
+/**
+ * Snapshot of cache statistics.
+ */
+public class CacheStats
+{
+  private final long size;
+
+  private final long hits;
+
+  private final long misses;
+
+  private final long evictions;
+
+  public CacheStats(final long size, final long hits, final long misses, final long evictions) {
+    this.size = size;
+    this.hits = hits;
+    this.misses = misses;
+    this.evictions = evictions;
+  }
+
+  /**
+   * The count of entries currently in cache.
+   */
+  public long size() {
+    return size;
+  }
+
+  public long hits() {
+    return hits;
+  }
+
+  public long misses() {
+    return misses;
+  }
+
+  public long evictions() {
+    return evictions;
+  }
+
+  /**
+   * The ratio of hits to all lookups, or {@code 0} if there were no lookups.
+   */
+  public double hitRatio() {
+    long lookups = hits + misses;
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  @Override
+  public String toString() {
+    return "CacheStats{" +
+        "size=" + size +
+        ", hits=" + hits +
+        ", misses=" + misses +
+        ", evictions=" + evictions +
+        '}';
+  }
+}
@@ -0,0 +1,28 @@
+package org.cstamas.vertx.orientdb;
+
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+
+/**
+ * Cluster aware writer, created with {@link DocumentDatabase#clusterWriter(String)}. Concurrent inserts into same
+ * cluster contend on it's locks and position allocation, so this writer saves documents of a class into a fixed
+ * cluster of the class per worker thread, or per key hash. Insert throughput scales with workers as long as the class
+ * has at least as many clusters as there are workers, see {@link ConnectionOptions.Builder#setMinimumClusters(int)}
+ * and {@link OrientUtils#clusters(String, int)}. The clusters of class are resolved on first save.
+ */
+public interface ClusterWriter
+{
+  /**
+   * Saves the document into the cluster assigned to the worker thread executing the save. The handler is invoked on
+   * the context of caller, with the identity of saved document.
+   */
+  ClusterWriter save(ODocument document, Handler<AsyncResult<ORID>> handler);
+
+  /**
+   * Saves the document into the cluster chosen by hash of key, so documents of same key land in same cluster. The
+   * handler is invoked on the context of caller, with the identity of saved document.
+   */
+  ClusterWriter save(Object key, ODocument document, Handler<AsyncResult<ORID>> handler);
+}
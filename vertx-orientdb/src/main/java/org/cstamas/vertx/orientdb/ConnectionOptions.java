@@ -1,6 +1,12 @@
 package org.cstamas.vertx.orientdb;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import com.orientechnologies.orient.core.db.OPartitionedDatabasePool;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.WorkerExecutor;
 
 import static java.util.Objects.requireNonNull;
 
@@ -9,6 +15,31 @@ import static java.util.Objects.requireNonNull;
  */
 public class ConnectionOptions
 {
+  /**
+   * The strategy to apply when a database has {@link #maxPendingOperations} pending operations, and new one is
+   * submitted.
+   */
+  public enum OverflowStrategy
+  {
+    /**
+     * The new operation is failed immediately.
+     */
+    REJECT,
+
+    /**
+     * The new operation waits for {@link #overflowWaitTimeout} milliseconds to be admitted, and is failed if not
+     * admitted within that time.
+     */
+    WAIT,
+
+    /**
+     * The oldest pending operation that did not start yet is failed, and the new operation is admitted in it's place.
+     * The task of failed operation remains queued for workers and is skipped once reached, without acquiring a
+     * connection, so the worker queue may hold more than {@link #maxPendingOperations} tasks meanwhile.
+     */
+    DROP_OLDEST
+  }
+
   /**
    * The connection name. Should be URL safe name, and databases and connections are keyed by this property.
    */
@@ -39,6 +70,102 @@ public class ConnectionOptions
    */
   private final int maxPoolSize;
 
+  /**
+   * The size of the dedicated {@link WorkerExecutor} executing operations of this database. As each operation holds
+   * a pooled connection, it makes no sense to have this larger than {@link #maxPoolSize}.
+   */
+  private final int workerPoolSize;
+
+  /**
+   * The maximum count of operations submitted but not yet started. If zero or less, the count is unbounded.
+   */
+  private final int maxPendingOperations;
+
+  /**
+   * The strategy to apply when there are {@link #maxPendingOperations} pending operations.
+   */
+  private final OverflowStrategy overflowStrategy;
+
+  /**
+   * The wait timeout in milliseconds, used when {@link #overflowStrategy} is {@link OverflowStrategy#WAIT}.
+   */
+  private final long overflowWaitTimeout;
+
+  /**
+   * The maximum count of inspected statements cached for this database. If zero or less, inspections are not cached.
+   */
+  private final int statementInspectionSize;
+
+  /**
+   * The maximum count of query results cached for this database. If zero or less, results are not cached.
+   */
+  private final int resultCacheSize;
+
+  /**
+   * The time to live of cached query results in milliseconds, used when {@link #resultCacheSize} is greater than zero.
+   */
+  private final long resultCacheTtl;
+
+  /**
+   * The minimum count of clusters created for new classes. If zero or less, the database default is used.
+   */
+  private final int minimumClusters;
+
+  /**
+   * The URIs of read replicas. If empty, but read pool is enabled, the read pool connects to {@link #uri}.
+   */
+  private final List<String> readUris;
+
+  /**
+   * See {@link OPartitionedDatabasePool}, applies to read pools.
+   */
+  private final int readMaxPartitionSize;
+
+  /**
+   * See {@link OPartitionedDatabasePool}, applies to read pools. If zero or less, there are no read pools, and
+   * read-only operations use the same pool as read-write ones.
+   */
+  private final int readMaxPoolSize;
+
+  /**
+   * The URIs of other servers serving the same database as {@link #uri}. If not empty, operations are routed to the
+   * least loaded available server, see {@link Builder#addServerUri(String)}.
+   */
+  private final List<String> serverUris;
+
+  /**
+   * The interval in milliseconds of server health and latency probes, used when {@link #serverUris} is not empty.
+   */
+  private final long healthCheckInterval;
+
+  /**
+   * The probe latency in milliseconds above which a server is taken out of routing, used when {@link #serverUris} is
+   * not empty.
+   */
+  private final long latencyThreshold;
+
+  /**
+   * The time in milliseconds a failed or slow server is kept out of routing before it is probed again, used when
+   * {@link #serverUris} is not empty.
+   */
+  private final long breakerTimeout;
+
+  /**
+   * The count of connections pre-opened per pool when database is created, one on each of that many workers, so
+   * the pool partitions of workers hold an open connection. If zero or less, connections are opened on first use.
+   */
+  private final int warmUpConnections;
+
+  /**
+   * The names of indexes read through when database is created, to have them in disk cache.
+   */
+  private final List<String> warmUpIndexes;
+
+  /**
+   * The names of classes read through when database is created, to have their records in disk cache.
+   */
+  private final List<String> warmUpClasses;
+
   public ConnectionOptions(final String name,
                            final String uri,
                            final String username,
@@ -46,12 +173,65 @@ public class ConnectionOptions
                            final int maxPartitionSize,
                            final int maxPoolSize)
   {
-    this.name = requireNonNull(name);
-    this.uri = requireNonNull(uri);
-    this.username = requireNonNull(username);
-    this.password = requireNonNull(password);
-    this.maxPartitionSize = maxPartitionSize;
-    this.maxPoolSize = maxPoolSize;
+    this(new Builder(name, uri)
+        .setUsernamePassword(username, password)
+        .setMaxPartitionSize(maxPartitionSize)
+        .setMaxPoolSize(maxPoolSize));
+  }
+
+  /**
+   * Options are created with {@link Builder}, so adding new options does not break callers.
+   */
+  private ConnectionOptions(final Builder builder) {
+    this.name = requireNonNull(builder.name);
+    this.uri = requireNonNull(builder.uri);
+    this.username = requireNonNull(builder.username);
+    this.password = requireNonNull(builder.password);
+    this.maxPartitionSize = builder.maxPartitionSize;
+    this.maxPoolSize = builder.maxPoolSize;
+    int workers = builder.workerPoolSize < 0 ? VertxOptions.DEFAULT_WORKER_POOL_SIZE : builder.workerPoolSize;
+    this.workerPoolSize = Math.min(workers, maxPoolSize);
+    if (workerPoolSize < 1) {
+      throw new IllegalArgumentException("Worker pool size must be greater than zero: " + workerPoolSize);
+    }
+    this.maxPendingOperations = builder.maxPendingOperations;
+    this.overflowStrategy = requireNonNull(builder.overflowStrategy);
+    this.overflowWaitTimeout = builder.overflowWaitTimeout;
+    if (overflowStrategy == OverflowStrategy.WAIT && overflowWaitTimeout < 1) {
+      throw new IllegalArgumentException("Overflow wait timeout must be greater than zero: " + overflowWaitTimeout);
+    }
+    this.statementInspectionSize = builder.statementInspectionSize;
+    this.resultCacheSize = builder.resultCacheSize;
+    this.resultCacheTtl = builder.resultCacheTtl;
+    if (resultCacheSize > 0 && resultCacheTtl < 1) {
+      throw new IllegalArgumentException("Result cache TTL must be greater than zero: " + resultCacheTtl);
+    }
+    this.minimumClusters = builder.minimumClusters;
+    this.readUris = Collections.unmodifiableList(new ArrayList<>(builder.readUris));
+    boolean sizedAsReadWrite = builder.readMaxPoolSize < 1 && !readUris.isEmpty();
+    this.readMaxPartitionSize = sizedAsReadWrite ? maxPartitionSize : builder.readMaxPartitionSize;
+    this.readMaxPoolSize = sizedAsReadWrite ? maxPoolSize : builder.readMaxPoolSize;
+    if (!readUris.isEmpty() && readMaxPoolSize < 1) {
+      throw new IllegalArgumentException("Read max pool size must be greater than zero: " + readMaxPoolSize);
+    }
+    this.serverUris = Collections.unmodifiableList(new ArrayList<>(builder.serverUris));
+    this.healthCheckInterval = builder.healthCheckInterval;
+    this.latencyThreshold = builder.latencyThreshold;
+    this.breakerTimeout = builder.breakerTimeout;
+    if (!serverUris.isEmpty()) {
+      if (healthCheckInterval < 1) {
+        throw new IllegalArgumentException("Health check interval must be greater than zero: " + healthCheckInterval);
+      }
+      if (latencyThreshold < 1) {
+        throw new IllegalArgumentException("Latency threshold must be greater than zero: " + latencyThreshold);
+      }
+      if (breakerTimeout < 1) {
+        throw new IllegalArgumentException("Breaker timeout must be greater than zero: " + breakerTimeout);
+      }
+    }
+    this.warmUpConnections = builder.warmUpConnections;
+    this.warmUpIndexes = Collections.unmodifiableList(new ArrayList<>(builder.warmUpIndexes));
+    this.warmUpClasses = Collections.unmodifiableList(new ArrayList<>(builder.warmUpClasses));
   }
 
   public String name() {
@@ -78,6 +258,92 @@ public class ConnectionOptions
     return maxPoolSize;
   }
 
+  public int workerPoolSize() {
+    return workerPoolSize;
+  }
+
+  public int maxPendingOperations() {
+    return maxPendingOperations;
+  }
+
+  public OverflowStrategy overflowStrategy() {
+    return overflowStrategy;
+  }
+
+  public long overflowWaitTimeout() {
+    return overflowWaitTimeout;
+  }
+
+  public int statementInspectionSize() {
+    return statementInspectionSize;
+  }
+
+  public int resultCacheSize() {
+    return resultCacheSize;
+  }
+
+  public long resultCacheTtl() {
+    return resultCacheTtl;
+  }
+
+  public int minimumClusters() {
+    return minimumClusters;
+  }
+
+  public List<String> readUris() {
+    return readUris;
+  }
+
+  public int readMaxPartitionSize() {
+    return readMaxPartitionSize;
+  }
+
+  public int readMaxPoolSize() {
+    return readMaxPoolSize;
+  }
+
+  /**
+   * Returns {@code true} if read-only operations use separate pools.
+   */
+  public boolean isReadSplit() {
+    return readMaxPoolSize > 0;
+  }
+
+  public List<String> serverUris() {
+    return serverUris;
+  }
+
+  public long healthCheckInterval() {
+    return healthCheckInterval;
+  }
+
+  public long latencyThreshold() {
+    return latencyThreshold;
+  }
+
+  public long breakerTimeout() {
+    return breakerTimeout;
+  }
+
+  public int warmUpConnections() {
+    return warmUpConnections;
+  }
+
+  public List<String> warmUpIndexes() {
+    return warmUpIndexes;
+  }
+
+  public List<String> warmUpClasses() {
+    return warmUpClasses;
+  }
+
+  /**
+   * Returns {@code true} if database is warmed up when created.
+   */
+  public boolean isWarmUp() {
+    return warmUpConnections > 0 || !warmUpIndexes.isEmpty() || !warmUpClasses.isEmpty();
+  }
+
   public static class Builder
   {
     private static final String ADMIN_USER = "admin";
@@ -96,6 +362,42 @@ public class ConnectionOptions
 
     private int maxPoolSize = 64;
 
+    private int workerPoolSize = -1;
+
+    private int maxPendingOperations = 0;
+
+    private OverflowStrategy overflowStrategy = OverflowStrategy.REJECT;
+
+    private long overflowWaitTimeout = 0L;
+
+    private int statementInspectionSize = 100;
+
+    private int resultCacheSize = 0;
+
+    private long resultCacheTtl = 0L;
+
+    private int minimumClusters = 0;
+
+    private final List<String> readUris = new ArrayList<>();
+
+    private int readMaxPartitionSize = 0;
+
+    private int readMaxPoolSize = 0;
+
+    private final List<String> serverUris = new ArrayList<>();
+
+    private long healthCheckInterval = 1000L;
+
+    private long latencyThreshold = 500L;
+
+    private long breakerTimeout = 5000L;
+
+    private int warmUpConnections = 0;
+
+    private final List<String> warmUpIndexes = new ArrayList<>();
+
+    private final List<String> warmUpClasses = new ArrayList<>();
+
     public Builder(final String name, final String uri) {
       this.name = requireNonNull(name);
       this.uri = requireNonNull(uri);
@@ -117,8 +419,149 @@ public class ConnectionOptions
       return this;
     }
 
+    /**
+     * Sets the size of the worker pool dedicated to this database. If not set, it defaults to the smaller of
+     * {@link VertxOptions#DEFAULT_WORKER_POOL_SIZE} and max pool size. In any case, it is capped to the max pool
+     * size, as workers beyond that would just block waiting for a connection.
+     */
+    public Builder setWorkerPoolSize(final int workerPoolSize) {
+      this.workerPoolSize = workerPoolSize;
+      return this;
+    }
+
+    /**
+     * Bounds the count of pending operations (submitted but not yet started) of this database. If not set, the count
+     * is unbounded.
+     */
+    public Builder setMaxPendingOperations(final int maxPendingOperations) {
+      this.maxPendingOperations = maxPendingOperations;
+      return this;
+    }
+
+    /**
+     * Sets the strategy to apply when pending operation count is bounded and reached. For {@link
+     * OverflowStrategy#WAIT} the timeout (in milliseconds) must be greater than zero, for other strategies it is
+     * ignored.
+     */
+    public Builder setOverflowStrategy(final OverflowStrategy overflowStrategy, final long overflowWaitTimeout) {
+      this.overflowStrategy = overflowStrategy;
+      this.overflowWaitTimeout = overflowWaitTimeout;
+      return this;
+    }
+
+    /**
+     * Sets the maximum count of statement inspections cached for this database, zero disables caching. Used only if
+     * result cache is enabled. Default is 100. See {@link DocumentDatabase#getStatementInspectionStats()}.
+     */
+    public Builder setStatementInspectionSize(final int statementInspectionSize) {
+      this.statementInspectionSize = statementInspectionSize;
+      return this;
+    }
+
+    /**
+     * Enables caching of at most {@code resultCacheSize} query results for {@code resultCacheTtl} milliseconds. Cached
+     * results are invalidated when documents of queried class are modified on this JVM, while the TTL bounds the
+     * staleness caused by modifications not seen by this JVM (like those made over remote connections by others).
+     * By default results are not cached.
+     */
+    public Builder setResultCache(final int resultCacheSize, final long resultCacheTtl) {
+      this.resultCacheSize = resultCacheSize;
+      this.resultCacheTtl = resultCacheTtl;
+      return this;
+    }
+
+    /**
+     * Sets the minimum count of clusters created for new classes, applied to the database before the create handler
+     * of {@link Manager#createDocumentInstance(ConnectionOptions, io.vertx.core.Handler, io.vertx.core.Handler)} is
+     * invoked, so classes created by it are spread over that many clusters. Writers inserting into distinct clusters
+     * do not contend, see {@link DocumentDatabase#clusterWriter(String)}. Usually set to the count of cores. If not
+     * set, the database default is used. Ignored for remote databases.
+     */
+    public Builder setMinimumClusters(final int minimumClusters) {
+      this.minimumClusters = minimumClusters;
+      return this;
+    }
+
+    /**
+     * Enables separate pool for read-only operations (see {@link Database#execReadOnly(io.vertx.core.Handler)}), with
+     * it's own sizing, so reads do not compete with writes for connections. The read pool connects to the same URI,
+     * unless read replicas are added with {@link #addReadUri(String)}, in which case there is a read pool of this
+     * size per replica. By default there are no read pools.
+     */
+    public Builder setReadPool(final int readMaxPartitionSize, final int readMaxPoolSize) {
+      this.readMaxPartitionSize = readMaxPartitionSize;
+      this.readMaxPoolSize = readMaxPoolSize;
+      return this;
+    }
+
+    /**
+     * Adds URI of read replica (like a remote URI of another server of distributed database), that read-only
+     * operations are routed to, round-robin. Replicas may lag behind, so reads may not see preceding writes. If read
+     * pool is not sized with {@link #setReadPool(int, int)}, it is sized as the read-write pool.
+     */
+    public Builder addReadUri(final String readUri) {
+      this.readUris.add(requireNonNull(readUri));
+      return this;
+    }
+
+    /**
+     * Adds URI of another server serving the same database (like a remote URI of another server of distributed
+     * database). With server URIs added, each server has it's own pool, and operations are routed to the available
+     * server with least operations in flight, except read-only ones if reads are split, see {@link
+     * #setReadPool(int, int)}. A server that fails to hand out a connection is taken out of routing, and the operation
+     * fails over to the next server. Servers are probed in background, see {@link #setHealthCheck(long, long, long)}.
+     * By default there are no other servers.
+     */
+    public Builder addServerUri(final String serverUri) {
+      this.serverUris.add(requireNonNull(serverUri));
+      return this;
+    }
+
+    /**
+     * Sets the interval of server probes, the probe latency above which a server is taken out of routing, and the
+     * time it is kept out before it is probed again (all in milliseconds). A server is put back into routing once
+     * a probe succeeds below the latency threshold. Used only if server URIs are added with {@link
+     * #addServerUri(String)}. Default is probe every 1s, with threshold of 500ms and timeout of 5s.
+     */
+    public Builder setHealthCheck(final long healthCheckInterval, final long latencyThreshold,
+                                  final long breakerTimeout)
+    {
+      this.healthCheckInterval = healthCheckInterval;
+      this.latencyThreshold = latencyThreshold;
+      this.breakerTimeout = breakerTimeout;
+      return this;
+    }
+
+    /**
+     * Sets the count of connections pre-opened per pool when database is created. Pool partitions are per thread, so
+     * connections are opened concurrently on that many workers (capped to the worker count), each leaving an open
+     * connection in it's partition. By default connections are opened on first use.
+     */
+    public Builder setWarmUpConnections(final int warmUpConnections) {
+      this.warmUpConnections = warmUpConnections;
+      return this;
+    }
+
+    /**
+     * Adds name of index to be read through when database is created, so the first lookups do not load index pages
+     * from disk. Missing indexes are logged and skipped.
+     */
+    public Builder addWarmUpIndex(final String indexName) {
+      this.warmUpIndexes.add(requireNonNull(indexName));
+      return this;
+    }
+
+    /**
+     * Adds name of class to be read through when database is created, so the first reads do not load records from
+     * disk. Meant for small, frequently read classes. Missing classes are logged and skipped.
+     */
+    public Builder addWarmUpClass(final String className) {
+      this.warmUpClasses.add(requireNonNull(className));
+      return this;
+    }
+
     public ConnectionOptions build() {
-      return new ConnectionOptions(name, uri, username, password, maxPartitionSize, maxPoolSize);
+      return new ConnectionOptions(this);
     }
   }
 }
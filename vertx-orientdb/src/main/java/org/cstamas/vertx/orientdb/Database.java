@@ -1,5 +1,8 @@
 package org.cstamas.vertx.orientdb;
 
+import java.util.function.Function;
+
+import com.orientechnologies.orient.core.exception.OConcurrentModificationException;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Closeable;
 import io.vertx.core.Handler;
@@ -16,7 +19,72 @@ public interface Database<T, OT>
   String getName();
 
   /**
-   * Executes handler with pooled connection.
+   * Returns the count of operations submitted to this database but not yet started. If database has bounded pending
+   * operations (see {@link ConnectionOptions#maxPendingOperations()}), operations submitted over the bound are failed
+   * with {@link DatabaseOverloadedException}.
+   */
+  int getPendingOperations();
+
+  /**
+   * Executes handler with pooled connection, ordered or not as {@link ManagerOptions#isOrderedExec()} says.
    */
   T exec(Handler<AsyncResult<OT>> handler);
+
+  /**
+   * Executes handler with pooled connection. If {@code ordered} is {@code true}, the handler is executed after all
+   * previously ordered operations issued from the same Vert.x context are done. If {@code false}, the handler may be
+   * executed concurrently with other operations, and independent operations may fan out over the connection pool.
+   */
+  T exec(boolean ordered, Handler<AsyncResult<OT>> handler);
+
+  /**
+   * Executes handler with pooled connection for reading only, ordered or not as {@link ManagerOptions#isOrderedExec()}
+   * says. If read split is enabled (see {@link ConnectionOptions.Builder#setReadPool(int, int)}), the connection is
+   * taken from read pool, and handlers are executed by workers dedicated to reads, so reads do not compete with
+   * writes. Ordered reads are ordered with ordered writes to same database issued from the same Vert.x context too.
+   * The handler must not write.
+   */
+  T execReadOnly(Handler<AsyncResult<OT>> handler);
+
+  /**
+   * Same as {@link #execReadOnly(Handler)}, ordered or not as {@code ordered} says, see {@link #exec(boolean,
+   * Handler)}.
+   */
+  T execReadOnly(boolean ordered, Handler<AsyncResult<OT>> handler);
+
+  /**
+   * Applies function on pooled connection, ordered or not as {@link ManagerOptions#isOrderedExec()} says. Unlike
+   * {@link #exec(Handler)}, the result handler is invoked on the context of caller, after the connection is returned
+   * to pool, so business logic following the database work (like sending messages) does not hold a connection. The
+   * function result must not depend on the connection being open, for example documents should be detached.
+   */
+  <R> T call(Function<OT, R> function, Handler<AsyncResult<R>> handler);
+
+  /**
+   * Same as {@link #call(Function, Handler)}, ordered or not as {@code ordered} says, see {@link #exec(boolean,
+   * Handler)}.
+   */
+  <R> T call(boolean ordered, Function<OT, R> function, Handler<AsyncResult<R>> handler);
+
+  /**
+   * Same as {@link #call(Function, Handler)}, but with connection for reading only, see {@link
+   * #execReadOnly(Handler)}.
+   */
+  <R> T callReadOnly(Function<OT, R> function, Handler<AsyncResult<R>> handler);
+
+  /**
+   * Same as {@link #call(boolean, Function, Handler)}, but with connection for reading only, see {@link
+   * #execReadOnly(Handler)}.
+   */
+  <R> T callReadOnly(boolean ordered, Function<OT, R> function, Handler<AsyncResult<R>> handler);
+
+  /**
+   * Executes handler with pooled connection, and retries it if it fails with {@link OConcurrentModificationException}
+   * (the handler <b>must commit</b>, as the exception is raised on commit). Unlike {@link OrientUtils#retry(int,
+   * OrientUtils.Variance, Handler)}, between attempts the connection and the worker are released, and the next attempt
+   * is scheduled with timer after backoff as {@link RetryPolicy} says, so contention on hot records does not block
+   * workers. The result handler is invoked on the context of caller, with the count of attempts done if handler
+   * succeeded, or with the last failure if attempts are exhausted or handler failed with other exception.
+   */
+  T retry(RetryPolicy retryPolicy, Handler<OT> handler, Handler<AsyncResult<Integer>> resultHandler);
 }
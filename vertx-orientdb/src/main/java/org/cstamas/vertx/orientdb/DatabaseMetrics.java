@@ -0,0 +1,55 @@
+package org.cstamas.vertx.orientdb;
+
+/**
+ * Metrics SPI, receiving events of database operations executed by {@link Manager}, keyed by database name. Passed
+ * to {@link Manager#create(io.vertx.core.Vertx, ManagerOptions, DatabaseMetrics)}, the default is {@link #noop()}.
+ * See {@link HistogramMetrics} for implementation keeping latency histograms.
+ * <p>
+ * Methods are invoked on worker threads (or on event loop, if {@link ManagerOptions#isUseEventLoop()}), so
+ * implementations must be thread safe and fast. Latencies are in nanoseconds.
+ */
+public interface DatabaseMetrics
+{
+  /**
+   * Returns metrics implementation that ignores all events.
+   */
+  static DatabaseMetrics noop() {
+    return NoopDatabaseMetrics.INSTANCE;
+  }
+
+  /**
+   * Operation is picked up for execution, is in flight until {@link #finished(String, boolean)} is invoked.
+   */
+  void started(String database);
+
+  /**
+   * Time operation spent queued, after being submitted and before a worker picked it up.
+   */
+  void queueWait(String database, long nanos);
+
+  /**
+   * Time spent to acquire a pooled connection.
+   */
+  void acquire(String database, long nanos);
+
+  /**
+   * Time spent executing operation handler, with acquired connection.
+   */
+  void execute(String database, long nanos);
+
+  /**
+   * Operation finished, successfully or not (either connection acquisition or handler failed).
+   */
+  void finished(String database, boolean success);
+
+  /**
+   * The count of attempts done by handler wrapped with {@link OrientUtils#retry(int, OrientUtils.Variance,
+   * io.vertx.core.Handler)} or {@link OrientUtils#retryGraph(int, OrientUtils.Variance, io.vertx.core.Handler)}.
+   */
+  void attempts(String database, int attempts);
+
+  /**
+   * Time spent warming up database when it was created, see {@link ConnectionOptions#isWarmUp()}.
+   */
+  void warmUp(String database, long nanos);
+}
@@ -0,0 +1,26 @@
+package org.cstamas.vertx.orientdb;
+
+/**
+ * Exception signaling that a database operation was not executed, as the database had too many pending operations.
+ * Thrown only for databases having bounded pending operations, see {@link ConnectionOptions#maxPendingOperations()}.
+ * Callers receiving this exception may shed load, as the operation did not touch the database at all. Query streams
+ * fail with it too, when paused by consumer for too long, see
+ * {@link DocumentDatabase#queryStream(String, java.util.Map)}.
+ */
+public class DatabaseOverloadedException
+    extends RuntimeException
+{
+  private final String name;
+
+  public DatabaseOverloadedException(final String name, final String message) {
+    super("Database " + name + " overloaded: " + message);
+    this.name = name;
+  }
+
+  /**
+   * Returns the name of the overloaded database.
+   */
+  public String getName() {
+    return name;
+  }
+}
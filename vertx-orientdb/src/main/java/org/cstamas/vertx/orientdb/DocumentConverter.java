@@ -0,0 +1,450 @@
+package org.cstamas.vertx.orientdb;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.db.record.ORecordLazyMap;
+import com.orientechnologies.orient.core.db.record.ORecordLazyMultiValue;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OProperty;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.ORecord;
+import com.orientechnologies.orient.core.record.ORecordInternal;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Converts {@link ODocument} to {@link JsonObject} and back by walking the fields, without serializing to and parsing
+ * JSON text as {@link ODocument#toJSON()} and {@link ODocument#fromJSON(String)} do. Field values are mapped by their
+ * type: strings, booleans and numbers as they are ({@link OType#SHORT} and {@link OType#BYTE} as integers, {@link
+ * OType#DECIMAL} as string to keep precision), collections as {@link JsonArray}, maps as {@link JsonObject}, while
+ * links, embedded documents, dates and binary data are mapped as set in converter. When metadata is enabled, {@code
+ * @rid}, {@code @version} and {@code @class} are included in converted document (and {@code @class} in embedded
+ * documents), and are applied when converting back.
+ * <p>
+ * Conversion to JSON does not load records: links are converted from their identity, unless {@link LinkMode#EXPAND} is
+ * set, which loads linked records using database active on current thread.
+ * <p>
+ * JSON carries no field types, so conversion back to document takes them from schema: when class of document has a
+ * property for the field, and database is active on current thread, links are restored from record identity strings,
+ * dates from milliseconds since epoch or ISO-8601 strings, binary data from Base64 strings, decimals from strings,
+ * and maps from objects, whatever modes were used to convert them. Expanded links (objects having {@code @rid}) are
+ * restored as links even without schema, while other values without schema type remain strings and numbers, as they
+ * are in JSON. Skipped values cannot be restored.
+ */
+public class DocumentConverter
+{
+  /**
+   * How links to other records are converted.
+   */
+  public enum LinkMode
+  {
+    /**
+     * Link converted to record identity string, like {@code #12:0}.
+     */
+    RID,
+    /**
+     * Linked document loaded and converted like embedded one (with it's own links converted to record identity).
+     */
+    EXPAND,
+    /**
+     * Link left out.
+     */
+    SKIP
+  }
+
+  /**
+   * How embedded documents are converted.
+   */
+  public enum EmbeddedMode
+  {
+    /**
+     * Embedded document converted to {@link JsonObject}.
+     */
+    OBJECT,
+    /**
+     * Embedded document left out.
+     */
+    SKIP
+  }
+
+  /**
+   * How dates are converted.
+   */
+  public enum DateMode
+  {
+    /**
+     * Date converted to milliseconds since epoch.
+     */
+    EPOCH_MILLIS,
+    /**
+     * Date converted to ISO-8601 string (UTC), like {@code 2017-11-14T15:39:00Z}.
+     */
+    ISO_8601
+  }
+
+  /**
+   * How binary data is converted.
+   */
+  public enum BinaryMode
+  {
+    /**
+     * Binary data converted to Base64 string, as {@link JsonObject#put(String, byte[])} does.
+     */
+    BASE64,
+    /**
+     * Binary data left out.
+     */
+    SKIP
+  }
+
+  /**
+   * Default converter: metadata included, links as record identity, embedded documents as objects, dates as
+   * milliseconds since epoch and binary data as Base64.
+   */
+  public static final DocumentConverter DEFAULT = new DocumentConverter(
+      true, LinkMode.RID, EmbeddedMode.OBJECT, DateMode.EPOCH_MILLIS, BinaryMode.BASE64
+  );
+
+  private static final String RID = "@rid";
+
+  private static final String VERSION = "@version";
+
+  private static final String CLASS = "@class";
+
+  private static final Object SKIPPED = new Object();
+
+  private final boolean metadata;
+
+  private final LinkMode linkMode;
+
+  private final EmbeddedMode embeddedMode;
+
+  private final DateMode dateMode;
+
+  private final BinaryMode binaryMode;
+
+  public DocumentConverter(final boolean metadata,
+                           final LinkMode linkMode,
+                           final EmbeddedMode embeddedMode,
+                           final DateMode dateMode,
+                           final BinaryMode binaryMode)
+  {
+    this.metadata = metadata;
+    this.linkMode = requireNonNull(linkMode);
+    this.embeddedMode = requireNonNull(embeddedMode);
+    this.dateMode = requireNonNull(dateMode);
+    this.binaryMode = requireNonNull(binaryMode);
+  }
+
+  public boolean metadata() {
+    return metadata;
+  }
+
+  public LinkMode linkMode() {
+    return linkMode;
+  }
+
+  public EmbeddedMode embeddedMode() {
+    return embeddedMode;
+  }
+
+  public DateMode dateMode() {
+    return dateMode;
+  }
+
+  public BinaryMode binaryMode() {
+    return binaryMode;
+  }
+
+  /**
+   * Converts document to JSON.
+   */
+  public JsonObject toJson(final ODocument document) {
+    requireNonNull(document);
+    JsonObject result = new JsonObject();
+    if (metadata) {
+      ORID rid = document.getIdentity();
+      if (rid.isValid()) {
+        result.put(RID, rid.toString());
+        result.put(VERSION, document.getVersion());
+      }
+      if (document.getClassName() != null) {
+        result.put(CLASS, document.getClassName());
+      }
+    }
+    fields(document, result, linkMode);
+    return result;
+  }
+
+  /**
+   * Converts JSON to document of given class, overriding {@code @class} of JSON.
+   */
+  public ODocument toDocument(final String className, final JsonObject json) {
+    requireNonNull(className);
+    return document(className, json);
+  }
+
+  /**
+   * Converts JSON to document. Nested objects become embedded documents (or links, if expanded, or maps, if schema
+   * says so), arrays become lists.
+   */
+  public ODocument toDocument(final JsonObject json) {
+    return document(null, json);
+  }
+
+  private ODocument document(@Nullable final String className, final JsonObject json) {
+    requireNonNull(json);
+    ODocument document = new ODocument();
+    if (className != null) {
+      document.setClassName(className);
+    }
+    else if (metadata && json.getValue(CLASS) instanceof String) {
+      document.setClassName(json.getString(CLASS));
+    }
+    OClass schemaClass = schemaClass(document);
+    for (Map.Entry<String, Object> entry : json) {
+      String name = entry.getKey();
+      if (name.startsWith("@")) {
+        continue;
+      }
+      OProperty property = schemaClass != null ? schemaClass.getProperty(name) : null;
+      OType type = property != null ? property.getType() : null;
+      Object value = fromJsonValue(entry.getValue(), type, property != null ? property.getLinkedType() : null);
+      if (type != null) {
+        document.field(name, value, type);
+      }
+      else if (value instanceof ODocument) {
+        document.field(name, value, OType.EMBEDDED);
+      }
+      else {
+        document.field(name, value);
+      }
+    }
+    if (metadata && json.getValue(RID) instanceof String) {
+      ORecordInternal.setIdentity(document, new ORecordId(json.getString(RID)));
+      Integer version = json.getInteger(VERSION);
+      if (version != null) {
+        ORecordInternal.setVersion(document, version);
+      }
+    }
+    return document;
+  }
+
+  private void fields(final ODocument document, final JsonObject result, final LinkMode links) {
+    for (String name : document.fieldNames()) {
+      Object value = document.rawField(name);
+      if (value == null) {
+        result.putNull(name);
+      }
+      else {
+        Object converted = toJsonValue(value, links);
+        if (converted != SKIPPED) {
+          result.put(name, converted);
+        }
+      }
+    }
+  }
+
+  private Object toJsonValue(final Object value, final LinkMode links) {
+    if (value == null || value instanceof String || value instanceof Boolean || value instanceof Integer
+        || value instanceof Long || value instanceof Double || value instanceof Float) {
+      return value;
+    }
+    else if (value instanceof Short || value instanceof Byte) {
+      return ((Number) value).intValue();
+    }
+    else if (value instanceof BigDecimal) {
+      return value.toString();
+    }
+    else if (value instanceof Date) {
+      Date date = (Date) value;
+      return dateMode == DateMode.EPOCH_MILLIS ? (Object) date.getTime() : date.toInstant().toString();
+    }
+    else if (value instanceof byte[]) {
+      return binaryMode == BinaryMode.BASE64 ? value : SKIPPED;
+    }
+    else if (value instanceof ODocument && isEmbedded((ODocument) value)) {
+      return embeddedMode == EmbeddedMode.OBJECT ? embedded((ODocument) value, links) : SKIPPED;
+    }
+    else if (value instanceof OIdentifiable) {
+      return link((OIdentifiable) value, links);
+    }
+    else if (value instanceof ORecordLazyMultiValue && !(value instanceof Map)) {
+      return array(((ORecordLazyMultiValue) value).rawIterator(), links);
+    }
+    else if (value instanceof Collection) {
+      return array(((Collection<?>) value).iterator(), links);
+    }
+    else if (value instanceof Map) {
+      return object((Map<?, ?>) value, links);
+    }
+    else if (value instanceof Enum) {
+      return ((Enum<?>) value).name();
+    }
+    return value.toString();
+  }
+
+  private static boolean isEmbedded(final ODocument document) {
+    return document.isEmbedded() || !document.getIdentity().isValid();
+  }
+
+  private JsonObject embedded(final ODocument document, final LinkMode links) {
+    JsonObject result = new JsonObject();
+    if (metadata && document.getClassName() != null) {
+      result.put(CLASS, document.getClassName());
+    }
+    fields(document, result, links);
+    return result;
+  }
+
+  private Object link(final OIdentifiable identifiable, final LinkMode links) {
+    if (links == LinkMode.RID) {
+      return identifiable.getIdentity().toString();
+    }
+    else if (links == LinkMode.EXPAND) {
+      ORecord record = identifiable.getRecord();
+      if (record instanceof ODocument) {
+        return toJsonLinked((ODocument) record);
+      }
+      return identifiable.getIdentity().toString();
+    }
+    return SKIPPED;
+  }
+
+  private JsonObject toJsonLinked(final ODocument document) {
+    JsonObject result = new JsonObject();
+    if (metadata) {
+      result.put(RID, document.getIdentity().toString());
+      result.put(VERSION, document.getVersion());
+      if (document.getClassName() != null) {
+        result.put(CLASS, document.getClassName());
+      }
+    }
+    fields(document, result, LinkMode.RID);
+    return result;
+  }
+
+  private JsonArray array(final Iterator<?> iterator, final LinkMode links) {
+    JsonArray result = new JsonArray();
+    while (iterator.hasNext()) {
+      Object converted = toJsonValue(iterator.next(), links);
+      if (converted != SKIPPED) {
+        result.add(converted);
+      }
+    }
+    return result;
+  }
+
+  private JsonObject object(final Map<?, ?> map, final LinkMode links) {
+    ORecordLazyMap lazyMap = map instanceof ORecordLazyMap ? (ORecordLazyMap) map : null;
+    boolean autoConvert = lazyMap != null && lazyMap.isAutoConvertToRecord();
+    if (autoConvert) {
+      lazyMap.setAutoConvertToRecord(false);
+    }
+    try {
+      JsonObject result = new JsonObject();
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        Object converted = toJsonValue(entry.getValue(), links);
+        if (converted != SKIPPED) {
+          result.put(String.valueOf(entry.getKey()), converted);
+        }
+      }
+      return result;
+    }
+    finally {
+      if (autoConvert) {
+        lazyMap.setAutoConvertToRecord(true);
+      }
+    }
+  }
+
+  /**
+   * Returns schema class of document, if it has class and database is active on current thread to resolve it.
+   */
+  @Nullable
+  private static OClass schemaClass(final ODocument document) {
+    if (document.getClassName() == null || !ODatabaseRecordThreadLocal.instance().isDefined()) {
+      return null;
+    }
+    return document.getSchemaClass();
+  }
+
+  /**
+   * Converts JSON value back, to given type if known. Type of items is passed for collections and maps.
+   */
+  private Object fromJsonValue(@Nullable final Object value,
+                               @Nullable final OType type,
+                               @Nullable final OType linkedType)
+  {
+    OType itemType = type == OType.LINKLIST || type == OType.LINKSET || type == OType.LINKMAP ? OType.LINK : linkedType;
+    if (value instanceof JsonObject) {
+      JsonObject json = (JsonObject) value;
+      if (metadata && json.getValue(RID) instanceof String) {
+        // expanded link
+        return new ORecordId(json.getString(RID));
+      }
+      if (type == OType.EMBEDDEDMAP || type == OType.LINKMAP) {
+        Map<String, Object> result = new HashMap<>(json.size());
+        for (Map.Entry<String, Object> entry : json) {
+          result.put(entry.getKey(), fromJsonValue(entry.getValue(), itemType, null));
+        }
+        return result;
+      }
+      return document(null, json);
+    }
+    else if (value instanceof JsonArray) {
+      List<Object> result = new ArrayList<>(((JsonArray) value).size());
+      for (Object item : (JsonArray) value) {
+        result.add(fromJsonValue(item, itemType, null));
+      }
+      return result;
+    }
+    else if (value instanceof String && type == OType.LINK) {
+      return new ORecordId((String) value);
+    }
+    else if (value instanceof String && type == OType.BINARY) {
+      return Base64.getDecoder().decode((String) value);
+    }
+    else if (value instanceof String && type == OType.DECIMAL) {
+      return new BigDecimal((String) value);
+    }
+    else if (type == OType.DATE || type == OType.DATETIME) {
+      if (value instanceof Number) {
+        return new Date(((Number) value).longValue());
+      }
+      else if (value instanceof String) {
+        return Date.from(Instant.parse((String) value));
+      }
+    }
+    return value;
+  }
+
+  @Override
+  public String toString() {
+    return "DocumentConverter{" +
+        "metadata=" + metadata +
+        ", linkMode=" + linkMode +
+        ", embeddedMode=" + embeddedMode +
+        ", dateMode=" + dateMode +
+        ", binaryMode=" + binaryMode +
+        '}';
+  }
+}
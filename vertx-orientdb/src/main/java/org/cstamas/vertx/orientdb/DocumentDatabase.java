@@ -1,6 +1,18 @@
 package org.cstamas.vertx.orientdb;
 
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
 
 /**
  * OrientDB pooled document database instance.
@@ -8,4 +20,167 @@ import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
 public interface DocumentDatabase
     extends Database<DocumentDatabase, ODatabaseDocumentTx>
 {
+  /**
+   * Creates a {@link BatchWriter} that saves documents in batches of at most {@code maxBatch} documents, and lets
+   * documents linger for at most {@code maxLingerMs} milliseconds before their batch is saved.
+   */
+  BatchWriter batchWriter(int maxBatch, long maxLingerMs);
+
+  /**
+   * Creates a {@link ClusterWriter} that saves documents of class {@code className} into a fixed cluster of the class
+   * per worker thread or per key, so concurrent inserts do not contend on same cluster.
+   */
+  ClusterWriter clusterWriter(String className);
+
+  /**
+   * Executes SQL query with named parameters (like {@code :name}) bound to passed in values. Prefer stable statement
+   * text with parameters over concatenating values into it, that is prone to SQL injection. The resulting documents
+   * are detached from database, and delivered on the context of caller. If result cache is enabled, the result may
+   * come from cache, see {@link #getResultCacheStats()}. Queries are read-only operations, see {@link
+   * #execReadOnly(Handler)}.
+   */
+  DocumentDatabase query(String sql,
+                         @Nullable Map<String, Object> params,
+                         Handler<AsyncResult<List<ODocument>>> handler);
+
+  /**
+   * Same as {@link #query(String, Map, Handler)}, but with positional parameters (like {@code ?}).
+   */
+  DocumentDatabase query(String sql,
+                         List<Object> params,
+                         Handler<AsyncResult<List<ODocument>>> handler);
+
+  /**
+   * Executes SQL command with named parameters (like {@code :name}) bound to passed in values. The command result
+   * (that depends on command, like count of updated records) is delivered on the context of caller.
+   */
+  DocumentDatabase command(String sql,
+                           @Nullable Map<String, Object> params,
+                           Handler<AsyncResult<Object>> handler);
+
+  /**
+   * Same as {@link #command(String, Map, Handler)}, but with positional parameters (like {@code ?}).
+   */
+  DocumentDatabase command(String sql,
+                           List<Object> params,
+                           Handler<AsyncResult<Object>> handler);
+
+  /**
+   * Executes query over class (and it's subclasses) fanned out over it's clusters: for each cluster a subquery {@code
+   * select from cluster:name where ...} is executed, concurrently on separate pooled connections, and the results are
+   * concatenated in cluster order. The optional {@code where} condition may have named parameters. Use for large
+   * scans, where using multiple workers pays off, see {@link ConnectionOptions.Builder#setMinimumClusters(int)}.
+   */
+  DocumentDatabase fanOutQuery(String className,
+                               @Nullable String where,
+                               @Nullable Map<String, Object> params,
+                               Handler<AsyncResult<List<ODocument>>> handler);
+
+  /**
+   * Same as {@link #fanOutQuery(String, String, Map, Handler)}, but subqueries are sorted by {@code orderBy} (a
+   * field name, optionally followed by {@code asc} or {@code desc}), and their results are merged keeping the order,
+   * {@code null} values sorting first. If {@code limit} is greater than zero, it limits the subqueries and the result.
+   */
+  DocumentDatabase fanOutQuery(String className,
+                               @Nullable String where,
+                               @Nullable Map<String, Object> params,
+                               String orderBy,
+                               int limit,
+                               Handler<AsyncResult<List<ODocument>>> handler);
+
+  /**
+   * Computes aggregate of field of documents of class (and of it's subclasses) matching the optional {@code where}
+   * condition, fanned out over it's clusters: partial aggregates are computed per cluster concurrently, and are
+   * combined. The field is not used for {@link Aggregate#COUNT}.
+   */
+  DocumentDatabase fanOutAggregate(String className,
+                                   @Nullable String where,
+                                   @Nullable Map<String, Object> params,
+                                   Aggregate aggregate,
+                                   @Nullable String field,
+                                   Handler<AsyncResult<Object>> handler);
+
+  /**
+   * Returns the statistics of statements of {@link #query(String, Map, Handler)} methods inspected by result cache,
+   * if enabled (see {@link #getResultCacheStats()}), to tell whether result depends on a single class. Each distinct
+   * statement is inspected once, hence many misses mean that values are concatenated into statements, instead of
+   * being passed as parameters.
+   */
+  CacheStats getStatementInspectionStats();
+
+  /**
+   * Returns the statistics of query result cache used by {@link #query(String, Map, Handler)} methods, if enabled
+   * with {@link ConnectionOptions.Builder#setResultCache(int, long)}. Each caller receives it's own copy of cached
+   * result, that may be modified. Only simple selects targeting a single class are cached, and they are invalidated
+   * when documents of that class are created, updated or deleted.
+   */
+  CacheStats getResultCacheStats();
+
+  /**
+   * Executes SQL query with optional named parameters, and streams the resulting documents. The query starts when
+   * data handler is set on the returned stream, and documents are delivered on the context of caller of this method.
+   * While the query runs, it holds a pooled connection and a worker. When the consumer is slow or pauses the stream,
+   * the query is paused as well, so memory use stays flat no matter how big the result is. If the query stays paused
+   * for more than 30 seconds, it is stopped to release the connection and worker, and the stream fails with {@link
+   * DatabaseOverloadedException}. Setting data handler to {@code null} cancels the query. Documents are detached from
+   * database, hence links are not resolved. Streaming is not supported if {@link ManagerOptions#isUseEventLoop()}, the
+   * stream fails with {@link IllegalStateException} then.
+   */
+  ReadStream<ODocument> queryStream(String sql, @Nullable Map<String, Object> params);
+
+  /**
+   * Same as {@link #queryStream(String, Map)}, but documents are converted to {@link JsonObject} on the worker, with
+   * {@link DocumentConverter#DEFAULT}.
+   */
+  ReadStream<JsonObject> queryJsonStream(String sql, @Nullable Map<String, Object> params);
+
+  /**
+   * Subscribes live query, that streams the changes (creations, updates and deletions) of documents matching the SQL
+   * select with optional named parameters, like {@code select from test where value > :min} (the {@code live} prefix
+   * is optional). The query is subscribed when data handler is set on the returned stream, and events are delivered on
+   * the context of caller of this method, as they are committed, without polling. Subscribing is an ordered
+   * operation, so ordered operations issued afterwards from same context are seen by the live query. No pooled
+   * connection or worker is held while subscribed. Paused stream buffers events, but if more than 1024 events are buffered, the stream fails
+   * with {@link DatabaseOverloadedException}. Setting data handler to {@code null} unsubscribes, and closing this
+   * database unsubscribes and ends the stream. To publish events on event bus, set a data handler that publishes them
+   * (using {@link LiveEvent#toJson()}, or {@link LiveEvent#document()} with {@link ODocumentCodec}).
+   */
+  ReadStream<LiveEvent> liveQuery(String sql, @Nullable Map<String, Object> params);
+
+  /**
+   * Imports NDJSON (one JSON document per line) read from source, like an {@link io.vertx.core.file.AsyncFile}, into
+   * class {@code className}, or into class given by {@code @class} field of documents if {@code null}. Documents are
+   * saved in batches, written in parallel on workers with massive insert intent declared, hence without record hooks
+   * and validation. The source is paused while writers are busy, so memory use stays bounded, see {@link
+   * ImportOptions}. The optional progress handler is invoked periodically, and the handler is invoked once all
+   * documents are committed, or with first failure (batches committed before the failure are not rolled back). Must
+   * be invoked on the context of source, where handlers are invoked as well.
+   */
+  DocumentDatabase importJson(@Nullable String className,
+                              ReadStream<Buffer> source,
+                              ImportOptions options,
+                              @Nullable Handler<ImportProgress> progressHandler,
+                              Handler<AsyncResult<ImportProgress>> handler);
+
+  /**
+   * Exports documents of class (and of it's subclasses) as NDJSON into target, like an {@link
+   * io.vertx.core.file.AsyncFile}. The clusters of class are iterated in chunks, and the pooled connection and worker
+   * are released between chunks, so export does not pin a worker. When target write queue is full, the next chunk is
+   * read only after it is drained, so memory use stays bounded. Documents are written without {@code @rid} and
+   * {@code @version}, and can be imported with {@link #importJson(String, ReadStream, ImportOptions, Handler,
+   * Handler)}. The handler is invoked on the context of caller with the count of exported documents. The target is
+   * not ended.
+   */
+  DocumentDatabase exportClass(String className, WriteStream<Buffer> target, Handler<AsyncResult<Long>> handler);
+
+  /**
+   * Exports the result of SQL query with optional named parameters as NDJSON into target. The query is streamed as
+   * with {@link #queryStream(String, Map)}, hence it holds a pooled connection and a worker while it runs, and it is
+   * paused while target write queue is full, failing if target is not drained within 30 seconds. The handler is
+   * invoked on the context of caller with the count of exported documents. The target is not ended.
+   */
+  DocumentDatabase exportQuery(String sql,
+                               @Nullable Map<String, Object> params,
+                               WriteStream<Buffer> target,
+                               Handler<AsyncResult<Long>> handler);
 }
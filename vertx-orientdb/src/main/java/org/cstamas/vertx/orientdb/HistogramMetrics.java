@@ -0,0 +1,160 @@
+package org.cstamas.vertx.orientdb;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * {@link DatabaseMetrics} keeping {@link Histogram}s of latencies and counters per database, for example to be
+ * periodically logged or published on event bus as JSON.
+ */
+public class HistogramMetrics
+    implements DatabaseMetrics
+{
+  /**
+   * Metrics of single database.
+   */
+  public static class Stats
+  {
+    private final Histogram queueWait = new Histogram();
+
+    private final Histogram acquire = new Histogram();
+
+    private final Histogram execute = new Histogram();
+
+    private final Histogram attempts = new Histogram();
+
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+
+    private final AtomicLong succeeded = new AtomicLong(0);
+
+    private final AtomicLong failed = new AtomicLong(0);
+
+    private final AtomicLong warmUp = new AtomicLong(0);
+
+    public Histogram queueWait() {
+      return queueWait;
+    }
+
+    public Histogram acquire() {
+      return acquire;
+    }
+
+    public Histogram execute() {
+      return execute;
+    }
+
+    public Histogram attempts() {
+      return attempts;
+    }
+
+    public int inFlight() {
+      return inFlight.get();
+    }
+
+    public long succeeded() {
+      return succeeded.get();
+    }
+
+    public long failed() {
+      return failed.get();
+    }
+
+    /**
+     * Returns the warm up time in nanoseconds, or zero if database was not warmed up.
+     */
+    public long warmUp() {
+      return warmUp.get();
+    }
+
+    public JsonObject toJson() {
+      return new JsonObject()
+          .put("inFlight", inFlight())
+          .put("succeeded", succeeded())
+          .put("failed", failed())
+          .put("warmUp", warmUp())
+          .put("queueWait", queueWait.toJson())
+          .put("acquire", acquire.toJson())
+          .put("execute", execute.toJson())
+          .put("attempts", attempts.toJson());
+    }
+  }
+
+  private final ConcurrentHashMap<String, Stats> stats = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the names of databases having metrics.
+   */
+  public Set<String> databases() {
+    return Collections.unmodifiableSet(stats.keySet());
+  }
+
+  /**
+   * Returns the metrics of database, or {@code null} if database had no operation yet.
+   */
+  @Nullable
+  public Stats get(final String database) {
+    return stats.get(database);
+  }
+
+  /**
+   * Returns the metrics of all databases as JSON, keyed by database name.
+   */
+  public JsonObject toJson() {
+    JsonObject result = new JsonObject();
+    stats.forEach((name, s) -> result.put(name, s.toJson()));
+    return result;
+  }
+
+  private Stats stats(final String database) {
+    return stats.computeIfAbsent(database, k -> new Stats());
+  }
+
+  @Override
+  public void started(final String database) {
+    stats(database).inFlight.incrementAndGet();
+  }
+
+  @Override
+  public void queueWait(final String database, final long nanos) {
+    stats(database).queueWait.record(nanos);
+  }
+
+  @Override
+  public void acquire(final String database, final long nanos) {
+    stats(database).acquire.record(nanos);
+  }
+
+  @Override
+  public void execute(final String database, final long nanos) {
+    stats(database).execute.record(nanos);
+  }
+
+  @Override
+  public void finished(final String database, final boolean success) {
+    Stats s = stats(database);
+    s.inFlight.decrementAndGet();
+    if (success) {
+      s.succeeded.incrementAndGet();
+    }
+    else {
+      s.failed.incrementAndGet();
+    }
+  }
+
+  @Override
+  public void attempts(final String database, final int attempts) {
+    stats(database).attempts.record(attempts);
+  }
+
+  @Override
+  public void warmUp(final String database, final long nanos) {
+    stats(database).warmUp.set(nanos);
+  }
+}
@@ -0,0 +1,58 @@
+package org.cstamas.vertx.orientdb;
+
+/**
+ * Options of {@link DocumentDatabase#importJson(String, io.vertx.core.streams.ReadStream, ImportOptions,
+ * io.vertx.core.Handler, io.vertx.core.Handler)}: the count of documents committed in one transaction, the count of
+ * batches written in parallel, and the interval (in milliseconds) of progress reports. The source stream is paused
+ * while {@code parallelism} batches are being written, so at most {@code (parallelism + 1) * batchSize} documents are
+ * held in memory.
+ */
+public class ImportOptions
+{
+  /**
+   * Default options: batches of 1000 documents, 4 batches written in parallel, progress reported every second.
+   */
+  public static final ImportOptions DEFAULT = new ImportOptions(1000, 4, 1000L);
+
+  private final int batchSize;
+
+  private final int parallelism;
+
+  private final long progressInterval;
+
+  public ImportOptions(final int batchSize, final int parallelism, final long progressInterval) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be greater than zero: " + batchSize);
+    }
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be greater than zero: " + parallelism);
+    }
+    if (progressInterval < 1) {
+      throw new IllegalArgumentException("Progress interval must be greater than zero: " + progressInterval);
+    }
+    this.batchSize = batchSize;
+    this.parallelism = parallelism;
+    this.progressInterval = progressInterval;
+  }
+
+  public int batchSize() {
+    return batchSize;
+  }
+
+  public int parallelism() {
+    return parallelism;
+  }
+
+  public long progressInterval() {
+    return progressInterval;
+  }
+
+  @Override
+  public String toString() {
+    return "ImportOptions{" +
+        "batchSize=" + batchSize +
+        ", parallelism=" + parallelism +
+        ", progressInterval=" + progressInterval +
+        '}';
+  }
+}
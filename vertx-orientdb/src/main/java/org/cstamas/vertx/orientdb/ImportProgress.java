@@ -0,0 +1,66 @@
+package org.cstamas.vertx.orientdb;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Snapshot of bulk import progress.
+ */
+public class ImportProgress
+{
+  private final long documents;
+
+  private final long batches;
+
+  private final long elapsed;
+
+  public ImportProgress(final long documents, final long batches, final long elapsed) {
+    this.documents = documents;
+    this.batches = batches;
+    this.elapsed = elapsed;
+  }
+
+  /**
+   * The count of documents committed so far.
+   */
+  public long documents() {
+    return documents;
+  }
+
+  /**
+   * The count of batches committed so far.
+   */
+  public long batches() {
+    return batches;
+  }
+
+  /**
+   * The milliseconds elapsed since import started.
+   */
+  public long elapsed() {
+    return elapsed;
+  }
+
+  /**
+   * The throughput in documents per second, or {@code 0} if no time elapsed yet.
+   */
+  public double throughput() {
+    return elapsed == 0 ? 0 : documents * 1000d / elapsed;
+  }
+
+  public JsonObject toJson() {
+    return new JsonObject()
+        .put("documents", documents)
+        .put("batches", batches)
+        .put("elapsed", elapsed)
+        .put("throughput", throughput());
+  }
+
+  @Override
+  public String toString() {
+    return "ImportProgress{" +
+        "documents=" + documents +
+        ", batches=" + batches +
+        ", elapsed=" + elapsed +
+        '}';
+  }
+}
@@ -0,0 +1,56 @@
+package org.cstamas.vertx.orientdb;
+
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.core.json.JsonObject;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Event of live query, see {@link DocumentDatabase#liveQuery(String, java.util.Map)}: the type of change and the
+ * document as it was after the change (or before deletion, in case of {@link Type#DELETED}). The document is a copy,
+ * detached from database.
+ */
+public class LiveEvent
+{
+  /**
+   * The type of change.
+   */
+  public enum Type
+  {
+    CREATED, UPDATED, DELETED
+  }
+
+  private final Type type;
+
+  private final ODocument document;
+
+  public LiveEvent(final Type type, final ODocument document) {
+    this.type = requireNonNull(type);
+    this.document = requireNonNull(document);
+  }
+
+  public Type type() {
+    return type;
+  }
+
+  public ODocument document() {
+    return document;
+  }
+
+  /**
+   * Returns the event as JSON, with document converted by {@link DocumentConverter#DEFAULT}.
+   */
+  public JsonObject toJson() {
+    return new JsonObject()
+        .put("type", type.name())
+        .put("document", DocumentConverter.DEFAULT.toJson(document));
+  }
+
+  @Override
+  public String toString() {
+    return "LiveEvent{" +
+        "type=" + type +
+        ", document=" + document.getIdentity() +
+        '}';
+  }
+}
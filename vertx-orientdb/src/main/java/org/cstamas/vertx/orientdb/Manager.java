@@ -1,5 +1,9 @@
 package org.cstamas.vertx.orientdb;
 
+import java.util.List;
+
+import javax.annotation.Nullable;
+
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
 import com.tinkerpop.blueprints.impls.orient.OrientGraphNoTx;
 import io.vertx.core.AsyncResult;
@@ -19,14 +23,31 @@ public interface Manager
    * use.
    */
   static Manager create(Vertx vertx, ManagerOptions managerOptions) {
-    return new ManagerImpl(vertx, managerOptions);
+    return create(vertx, managerOptions, DatabaseMetrics.noop());
+  }
+
+  /**
+   * Creates a manager instance using passed in Vertx, options and metrics, that will receive events of all database
+   * operations executed by this manager. The manager must be {@link #open(Handler)} before use.
+   */
+  static Manager create(Vertx vertx, ManagerOptions managerOptions, DatabaseMetrics databaseMetrics) {
+    return new ManagerImpl(vertx, managerOptions, databaseMetrics);
   }
 
   /**
-   * Opens database (and server is {@link ManagerOptions} says so), this might take a while.
+   * Opens database (and server is {@link ManagerOptions} says so), this might take a while. Databases declared in
+   * {@link ManagerOptions#getDatabases()} are opened too, concurrently, and handler is invoked once all of them are
+   * opened, failed if any of them failed.
    */
   Manager open(Handler<AsyncResult<Void>> handler);
 
+  /**
+   * Opens as {@link #open(Handler)}, and invokes {@code serverHandler} once server is activated. If server
+   * activation is deferred (see {@link ManagerOptions#isDeferServerActivation()}), it completes after {@code
+   * handler}, otherwise before it. If server is not enabled, it completes with manager open.
+   */
+  Manager open(Handler<AsyncResult<Void>> handler, Handler<AsyncResult<Void>> serverHandler);
+
   /**
    * Creates connection info using {@code plocal} prefix. It is a persistent disk based local database.
    */
@@ -37,6 +58,13 @@ public interface Manager
    */
   ConnectionOptions.Builder remoteConnection(String name, String hostname, String remoteName);
 
+  /**
+   * Creates connection info using {@code remote} prefix, connecting to the same database served by several OrientDB
+   * Server instances. The first host is the primary, while others are added as server URIs, see {@link
+   * ConnectionOptions.Builder#addServerUri(String)}.
+   */
+  ConnectionOptions.Builder remoteConnection(String name, List<String> hostnames, String remoteName);
+
   /**
    * Creates connection info using {@code memory} prefix. It is a non-persistent database, held completely in memory.
    */
@@ -52,7 +80,8 @@ public interface Manager
    * @param connectionOptions the orientdb connection information.
    * @param handler           the handler to invoke in single-connection mode, useful to set up schema, upgrade schema
    *                          or so.
-   * @param resultHandler     Invoked when creation is done.
+   * @param resultHandler     Invoked when creation is done, and database is warmed up, if warm up is configured (see
+   *                          {@link ConnectionOptions#isWarmUp()}).
    */
   Manager createDocumentInstance(ConnectionOptions connectionOptions,
                                  Handler<ODatabaseDocumentTx> handler,
@@ -89,4 +118,20 @@ public interface Manager
    * @param handler the handler invoked when documentInstance is constructed.
    */
   Manager graphInstance(String name, Handler<AsyncResult<GraphDatabase>> handler);
+
+  /**
+   * Returns the startup timing breakdown of database created by this manager, or {@code null} if no such database
+   * was created. Phases are {@code open} (opening or creating local database), {@code init} (the creation handler),
+   * {@code pools} (creating pools and workers) and {@code warmUp}.
+   */
+  @Nullable
+  StartupTiming startupTiming(String name);
+
+  /**
+   * Returns the startup timing breakdown of this manager. Phases are {@code orient} (OrientDB startup), {@code
+   * serverConfig} (server configuration, defaulted if missing), {@code serverStartup}, {@code serverActivate} and
+   * {@code databases} (opening declared databases), of those that happened so far. With deferred server activation,
+   * server phases are added once done.
+   */
+  StartupTiming startupTiming();
 }
@@ -1,7 +1,14 @@
 package org.cstamas.vertx.orientdb;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
 import javax.annotation.Nullable;
 
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import io.vertx.core.Handler;
 import io.vertx.core.json.JsonObject;
 
 import static java.util.Objects.requireNonNull;
@@ -20,7 +27,10 @@ import static java.util.Objects.requireNonNull;
  * {
  * "orientHome" : "orientdb",
  * "useEventLoop" : "false", // how OrientDB is accessed: in execute blocking block or directly on event loop
- * "serverEnabled" : "true"
+ * "serverEnabled" : "true",
+ * "deferServerActivation" : "false", // whether Manager#open completes before server is activated
+ * "orderedExec" : "true", // whether database operations from same context are executed one after another
+ * "startupConcurrency" : "4" // how many declared databases are opened concurrently by Manager#open
  * }
  * </ttyl>
  *
@@ -29,20 +39,94 @@ import static java.util.Objects.requireNonNull;
  * feel free to experiment with it. Vert.x will yell, if eventloop is being blocked for more than tolerable time,
  * so watch logs!
  *
+ * Note: with ordered execution (the default), all database operations issued from same Vert.x context (ie. a verticle)
+ * are executed serially, one after another, hence such verticle will never use more than one pooled connection at
+ * a time. With unordered execution, operations may execute concurrently and complete in any order. This is the
+ * default that may be overridden per call using {@link Database#exec(boolean, io.vertx.core.Handler)}.
+ *
+ * Note: databases declared with {@link #withDatabase(Function, Handler)} are opened by {@link
+ * Manager#open(Handler)}, at most {@code startupConcurrency} of them concurrently, and open completes once all of
+ * them are opened.
+ *
+ * Note: with deferred server activation, {@link Manager#open(Handler)} completes (and declared databases are opened)
+ * once OrientDB is started, while the server is started and activated in background, and completion of that is
+ * signalled by separate handler of {@link Manager#open(Handler, Handler)}. Embedded databases are usable right away,
+ * but remote connections to this server are not accepted until it is activated.
+ *
  * @see <a href="http://orientdb.com/docs/2.2/DB-Server.html">OrientDB Server</a>
  */
 public class ManagerOptions
 {
+  /**
+   * Database declared to be opened by {@link Manager#open(Handler)}, as if by {@link
+   * Manager#createDocumentInstance(ConnectionOptions, Handler, Handler)}. The connection options are created with
+   * opened manager, as those depend on it's configuration (like {@link Manager#plocalConnection(String)}).
+   */
+  public static class DatabaseDeclaration
+  {
+    private final Function<Manager, ConnectionOptions> connectionOptions;
+
+    private final Handler<ODatabaseDocumentTx> handler;
+
+    public DatabaseDeclaration(final Function<Manager, ConnectionOptions> connectionOptions,
+                               final Handler<ODatabaseDocumentTx> handler)
+    {
+      this.connectionOptions = requireNonNull(connectionOptions);
+      this.handler = requireNonNull(handler);
+    }
+
+    public Function<Manager, ConnectionOptions> connectionOptions() {
+      return connectionOptions;
+    }
+
+    public Handler<ODatabaseDocumentTx> handler() {
+      return handler;
+    }
+  }
+
+  private static final int DEFAULT_STARTUP_CONCURRENCY = 4;
+
   private final String orientHome;
 
   private final boolean useEventLoop;
 
   private final boolean serverEnabled;
 
-  public ManagerOptions(final String orientHome, final boolean useEventLoop, boolean serverEnabled) {
+  private final boolean deferServerActivation;
+
+  private final boolean orderedExec;
+
+  private final List<DatabaseDeclaration> databases;
+
+  private final int startupConcurrency;
+
+  public ManagerOptions(final String orientHome,
+                        final boolean useEventLoop,
+                        final boolean serverEnabled,
+                        final boolean orderedExec)
+  {
+    this(orientHome, useEventLoop, serverEnabled, false, orderedExec, Collections.emptyList(),
+        DEFAULT_STARTUP_CONCURRENCY);
+  }
+
+  public ManagerOptions(final String orientHome,
+                        final boolean useEventLoop,
+                        final boolean serverEnabled,
+                        final boolean deferServerActivation,
+                        final boolean orderedExec,
+                        final List<DatabaseDeclaration> databases,
+                        final int startupConcurrency)
+  {
     this.orientHome = requireNonNull(orientHome);
     this.useEventLoop = useEventLoop;
     this.serverEnabled = serverEnabled;
+    this.deferServerActivation = deferServerActivation;
+    this.orderedExec = orderedExec;
+    this.databases = Collections.unmodifiableList(new ArrayList<>(databases));
+    if (startupConcurrency < 1) {
+      throw new IllegalArgumentException("Startup concurrency must be greater than zero: " + startupConcurrency);
+    }
+    this.startupConcurrency = startupConcurrency;
   }
 
   public String getOrientHome() {
@@ -57,15 +141,50 @@ public class ManagerOptions
     return serverEnabled;
   }
 
+  public boolean isDeferServerActivation() {
+    return deferServerActivation;
+  }
+
+  public boolean isOrderedExec() {
+    return orderedExec;
+  }
+
+  public List<DatabaseDeclaration> getDatabases() {
+    return databases;
+  }
+
+  public int getStartupConcurrency() {
+    return startupConcurrency;
+  }
+
+  /**
+   * Returns copy of these options, with database declared to be opened by {@link Manager#open(Handler)}.
+   */
+  public ManagerOptions withDatabase(final Function<Manager, ConnectionOptions> connectionOptions,
+                                     final Handler<ODatabaseDocumentTx> handler)
+  {
+    List<DatabaseDeclaration> databases = new ArrayList<>(this.databases);
+    databases.add(new DatabaseDeclaration(connectionOptions, handler));
+    return new ManagerOptions(orientHome, useEventLoop, serverEnabled, deferServerActivation, orderedExec, databases,
+        startupConcurrency);
+  }
+
   public static ManagerOptions fromJsonObject(@Nullable final JsonObject config) {
     String orientHome = "orientdb";
     boolean useEventLoop = false;
     boolean serverEnabled = true;
+    boolean deferServerActivation = false;
+    boolean orderedExec = true;
+    int startupConcurrency = DEFAULT_STARTUP_CONCURRENCY;
     if (config != null) {
       orientHome = config.getString("orientHome", orientHome);
       useEventLoop = config.getBoolean("useEventLoop", useEventLoop);
       serverEnabled = config.getBoolean("serverEnabled", serverEnabled);
+      deferServerActivation = config.getBoolean("deferServerActivation", deferServerActivation);
+      orderedExec = config.getBoolean("orderedExec", orderedExec);
+      startupConcurrency = config.getInteger("startupConcurrency", startupConcurrency);
     }
-    return new ManagerOptions(orientHome, useEventLoop, serverEnabled);
+    return new ManagerOptions(orientHome, useEventLoop, serverEnabled, deferServerActivation, orderedExec,
+        Collections.emptyList(), startupConcurrency);
   }
 }
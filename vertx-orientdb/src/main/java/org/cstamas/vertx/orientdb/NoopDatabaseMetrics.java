@@ -0,0 +1,49 @@
+package org.cstamas.vertx.orientdb;
+
+/**
+ * No-op {@link DatabaseMetrics}.
+ */
+final class NoopDatabaseMetrics
+    implements DatabaseMetrics
+{
+  static final NoopDatabaseMetrics INSTANCE = new NoopDatabaseMetrics();
+
+  private NoopDatabaseMetrics() {
+    // nop
+  }
+
+  @Override
+  public void started(final String database) {
+    // nop
+  }
+
+  @Override
+  public void queueWait(final String database, final long nanos) {
+    // nop
+  }
+
+  @Override
+  public void acquire(final String database, final long nanos) {
+    // nop
+  }
+
+  @Override
+  public void execute(final String database, final long nanos) {
+    // nop
+  }
+
+  @Override
+  public void finished(final String database, final boolean success) {
+    // nop
+  }
+
+  @Override
+  public void attempts(final String database, final int attempts) {
+    // nop
+  }
+
+  @Override
+  public void warmUp(final String database, final long nanos) {
+    // nop
+  }
+}
@@ -0,0 +1,95 @@
+package org.cstamas.vertx.orientdb;
+
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.record.ORecordInternal;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.ORecordSerializerNetwork;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageCodec;
+
+/**
+ * Event bus {@link MessageCodec} carrying {@link ODocument} in OrientDB binary record format, along with it's identity
+ * and version. Documents delivered locally are copied, as documents are mutable and not thread safe, so sender and
+ * receivers may modify their own document. Registered as default codec of {@link ODocument} by {@link Manager}, so
+ * documents may be sent without delivery options.
+ */
+public class ODocumentCodec
+    implements MessageCodec<ODocument, ODocument>
+{
+  public static final String NAME = "odocument";
+
+  @Override
+  public void encodeToWire(final Buffer buffer, final ODocument document) {
+    write(buffer, document);
+  }
+
+  @Override
+  public ODocument decodeFromWire(final int pos, final Buffer buffer) {
+    ODocument document = new ODocument();
+    read(pos, buffer, document);
+    return document;
+  }
+
+  @Override
+  public ODocument transform(final ODocument document) {
+    return document.copy();
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public byte systemCodecID() {
+    return -1;
+  }
+
+  /**
+   * Registers {@link ODocumentCodec} as default codec of {@link ODocument} and {@link ODocumentListCodec} by it's name,
+   * unless already registered.
+   */
+  public static void register(final EventBus eventBus) {
+    try {
+      eventBus.registerDefaultCodec(ODocument.class, new ODocumentCodec());
+    }
+    catch (IllegalStateException e) {
+      // already registered
+    }
+    try {
+      eventBus.registerCodec(new ODocumentListCodec());
+    }
+    catch (IllegalStateException e) {
+      // already registered
+    }
+  }
+
+  /**
+   * Appends document to buffer: cluster id, cluster position, version, length of record and the record itself.
+   */
+  static void write(final Buffer buffer, final ODocument document) {
+    ORID rid = document.getIdentity();
+    byte[] record = ORecordSerializerNetwork.INSTANCE.toStream(document, false);
+    buffer.appendInt(rid.getClusterId())
+        .appendLong(rid.getClusterPosition())
+        .appendInt(document.getVersion())
+        .appendInt(record.length)
+        .appendBytes(record);
+  }
+
+  /**
+   * Reads document written by {@link #write(Buffer, ODocument)} starting at given position, returns position after it.
+   */
+  static int read(final int pos, final Buffer buffer, final ODocument document) {
+    int clusterId = buffer.getInt(pos);
+    long clusterPosition = buffer.getLong(pos + 4);
+    int version = buffer.getInt(pos + 12);
+    int length = buffer.getInt(pos + 16);
+    ORecordSerializerNetwork.INSTANCE.fromStream(buffer.getBytes(pos + 20, pos + 20 + length), document, null);
+    ORecordInternal.setIdentity(document, clusterId, clusterPosition);
+    ORecordInternal.setVersion(document, version);
+    ORecordInternal.unsetDirty(document);
+    return pos + 20 + length;
+  }
+}
@@ -0,0 +1,56 @@
+package org.cstamas.vertx.orientdb;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.MessageCodec;
+
+/**
+ * Event bus {@link MessageCodec} carrying list of {@link ODocument}s, each in same format as {@link ODocumentCodec}.
+ * Lists delivered locally are copied, along with each document. Registered by {@link Manager} under {@link #NAME}, to
+ * be selected with {@link DeliveryOptions#setCodecName(String)}.
+ */
+public class ODocumentListCodec
+    implements MessageCodec<List<ODocument>, List<ODocument>>
+{
+  public static final String NAME = "odocuments";
+
+  @Override
+  public void encodeToWire(final Buffer buffer, final List<ODocument> documents) {
+    buffer.appendInt(documents.size());
+    documents.forEach(d -> ODocumentCodec.write(buffer, d));
+  }
+
+  @Override
+  public List<ODocument> decodeFromWire(final int pos, final Buffer buffer) {
+    int size = buffer.getInt(pos);
+    List<ODocument> documents = new ArrayList<>(size);
+    int next = pos + 4;
+    for (int i = 0; i < size; i++) {
+      ODocument document = new ODocument();
+      next = ODocumentCodec.read(next, buffer, document);
+      documents.add(document);
+    }
+    return documents;
+  }
+
+  @Override
+  public List<ODocument> transform(final List<ODocument> documents) {
+    List<ODocument> copy = new ArrayList<>(documents.size());
+    documents.forEach(d -> copy.add(d.copy()));
+    return copy;
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public byte systemCodecID() {
+    return -1;
+  }
+}
@@ -1,11 +1,15 @@
 package org.cstamas.vertx.orientdb;
 
+import java.util.Locale;
 import java.util.Objects;
+import java.util.function.IntConsumer;
 
 import javax.annotation.Nullable;
 
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
 import com.orientechnologies.orient.core.exception.OConcurrentModificationException;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OSchema;
 import com.tinkerpop.blueprints.impls.orient.OrientGraph;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
@@ -16,6 +20,13 @@ import io.vertx.core.Handler;
  */
 public final class OrientUtils
 {
+  /**
+   * Connection property holding {@link IntConsumer}, that is notified with attempt count by handlers wrapped with
+   * {@link #retry(int, Variance, Handler)} and {@link #retryGraph(int, Variance, Handler)}. Set by {@link Manager} on
+   * pooled connections to feed {@link DatabaseMetrics#attempts(String, int)}.
+   */
+  public static final String ATTEMPTS_LISTENER_PROPERTY = "vertx-orientdb.attemptsListener";
+
   private OrientUtils() {
     // nop
   }
@@ -80,6 +91,32 @@ public final class OrientUtils
     };
   }
 
+  /**
+   * Returns handler that creates class if not exists, and adds clusters to it until it has at least {@code clusters}
+   * clusters, usable as create handler of existing databases, as {@link ConnectionOptions#minimumClusters()} applies
+   * to new classes only. Writers inserting into distinct clusters do not contend, see {@link
+   * DocumentDatabase#clusterWriter(String)}.
+   */
+  public static Handler<ODatabaseDocumentTx> clusters(final String className, final int clusters) {
+    Objects.requireNonNull(className);
+    if (clusters < 1) {
+      throw new IllegalArgumentException("Clusters must be greater than zero: " + clusters);
+    }
+    return db -> {
+      OSchema schema = db.getMetadata().getSchema();
+      OClass clazz = schema.existsClass(className) ? schema.getClass(className) : schema.createClass(className);
+      String prefix = clazz.getName().toLowerCase(Locale.ENGLISH) + "_";
+      int suffix = clazz.getClusterIds().length;
+      for (int i = clazz.getClusterIds().length; i < clusters; i++) {
+        // name may be taken, like by a cluster left over from a dropped class
+        while (db.existsCluster(prefix + suffix)) {
+          suffix++;
+        }
+        clazz.addCluster(prefix + suffix++);
+      }
+    };
+  }
+
   /**
    * Helper for method {@link #retry(int, Variance, Handler)} and {@link #retryGraph(int, Variance, Handler)}. On
    * retries, is invoked and may for example sleep few millis to improve conflict resolution on simultaneous updates.
@@ -97,6 +134,7 @@ public final class OrientUtils
    * handler must be guarded for exceptions in surrounding block, hence it declares it throws {@link Exception}.
    *
    * @see <a href="http://orientdb.com/docs/2.2/Java-Multi-Threading.html#multi-version-concurrency-control">MVCC</a>
+   * @see Database#retry(RetryPolicy, Handler, Handler) for non-blocking retries
    */
   public static Handler<ODatabaseDocumentTx> retry(final int retries,
                                                    @Nullable final Variance variance,
@@ -130,6 +168,7 @@ public final class OrientUtils
       catch (Exception e) {
         throwable = e;
       }
+      attempts(adb, retry);
       if (throwable != null) {
         throw new RuntimeException("Failed after " + retry + " retries", throwable);
       }
@@ -144,6 +183,7 @@ public final class OrientUtils
    * wrapped handler must be guarded for exceptions in surrounding block, hence it declares it throws {@link Exception}.
    *
    * @see <a href="http://orientdb.com/docs/2.2/Java-Multi-Threading.html#multi-version-concurrency-control">MVCC</a>
+   * @see Database#retry(RetryPolicy, Handler, Handler) for non-blocking retries
    */
   public static Handler<OrientGraph> retryGraph(final int retries,
                                                 @Nullable final Variance variance,
@@ -177,9 +217,17 @@ public final class OrientUtils
       catch (Exception e) {
         throwable = e;
       }
+      attempts(adb.getRawGraph(), retry);
       if (throwable != null) {
         throw new RuntimeException("Failed after " + retries + " retries", throwable);
       }
     };
   }
+
+  private static void attempts(final ODatabaseDocumentTx db, final int attempts) {
+    Object listener = db.getProperty(ATTEMPTS_LISTENER_PROPERTY);
+    if (listener instanceof IntConsumer) {
+      ((IntConsumer) listener).accept(attempts);
+    }
+  }
 }
@@ -0,0 +1,72 @@
+package org.cstamas.vertx.orientdb;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.orientechnologies.orient.core.exception.OConcurrentModificationException;
+
+/**
+ * Retry policy of {@link Database#retry(RetryPolicy, io.vertx.core.Handler, io.vertx.core.Handler)}: the count of
+ * attempts, and the exponential backoff (in milliseconds) between attempts failed with {@link
+ * OConcurrentModificationException}. The backoff doubles with each attempt up to {@link #maxBackoff()}, and is
+ * randomized by jitter over it's upper half, so conflicting writers do not retry in lock-step.
+ */
+public class RetryPolicy
+{
+  /**
+   * Default policy: 5 attempts, with backoff starting at 10ms and capped at 1s.
+   */
+  public static final RetryPolicy DEFAULT = new RetryPolicy(5, 10L, 1000L);
+
+  private final int maxAttempts;
+
+  private final long initialBackoff;
+
+  private final long maxBackoff;
+
+  public RetryPolicy(final int maxAttempts, final long initialBackoff, final long maxBackoff) {
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("Max attempts must be greater than zero: " + maxAttempts);
+    }
+    if (initialBackoff < 1) {
+      throw new IllegalArgumentException("Initial backoff must be greater than zero: " + initialBackoff);
+    }
+    if (maxBackoff < initialBackoff) {
+      throw new IllegalArgumentException("Max backoff must not be less than initial backoff: " + maxBackoff);
+    }
+    this.maxAttempts = maxAttempts;
+    this.initialBackoff = initialBackoff;
+    this.maxBackoff = maxBackoff;
+  }
+
+  public int maxAttempts() {
+    return maxAttempts;
+  }
+
+  public long initialBackoff() {
+    return initialBackoff;
+  }
+
+  public long maxBackoff() {
+    return maxBackoff;
+  }
+
+  /**
+   * Returns the backoff in milliseconds to wait after given failed attempt (starting with 1), always greater than
+   * zero.
+   */
+  public long backoff(final int attempt) {
+    int shift = Math.min(Math.max(attempt - 1, 0), 62 - (63 - Long.numberOfLeadingZeros(initialBackoff)));
+    long backoff = Math.min(maxBackoff, initialBackoff << shift);
+    long half = backoff / 2;
+    return Math.max(1L, backoff - half + ThreadLocalRandom.current().nextLong(half + 1));
+  }
+
+  @Override
+  public String toString() {
+    return "RetryPolicy{" +
+        "maxAttempts=" + maxAttempts +
+        ", initialBackoff=" + initialBackoff +
+        ", maxBackoff=" + maxBackoff +
+        '}';
+  }
+}
@@ -0,0 +1,63 @@
+package org.cstamas.vertx.orientdb;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.vertx.core.json.JsonObject;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Startup timing breakdown: the time spent (in nanoseconds) in each startup phase, in order of phases.
+ */
+public class StartupTiming
+{
+  private final String name;
+
+  private final Map<String, Long> phases;
+
+  public StartupTiming(final String name, final Map<String, Long> phases) {
+    this.name = requireNonNull(name);
+    this.phases = Collections.unmodifiableMap(new LinkedHashMap<>(phases));
+  }
+
+  /**
+   * The name of started database (or other component).
+   */
+  public String name() {
+    return name;
+  }
+
+  /**
+   * The nanoseconds spent in each phase, keyed by phase name, in order of phases.
+   */
+  public Map<String, Long> phases() {
+    return phases;
+  }
+
+  /**
+   * The nanoseconds spent in all phases.
+   */
+  public long total() {
+    return phases.values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  /**
+   * Returns the breakdown as JSON, with times in milliseconds.
+   */
+  public JsonObject toJson() {
+    JsonObject result = new JsonObject();
+    phases.forEach((phase, nanos) -> result.put(phase, TimeUnit.NANOSECONDS.toMillis(nanos)));
+    return result.put("total", TimeUnit.NANOSECONDS.toMillis(total()));
+  }
+
+  @Override
+  public String toString() {
+    return "StartupTiming{" +
+        "name='" + name + '\'' +
+        ", phases=" + toJson().encode() +
+        '}';
+  }
+}
@@ -0,0 +1,202 @@
+package org.cstamas.vertx.orientdb.impl;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import org.cstamas.vertx.orientdb.ConnectionOptions;
+import org.cstamas.vertx.orientdb.ConnectionOptions.OverflowStrategy;
+import org.cstamas.vertx.orientdb.DatabaseOverloadedException;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Bounds the count of pending operations of a database, operations that are submitted to worker executor but not
+ * yet started. If unbounded, it merely counts them.
+ */
+class AdmissionQueue
+{
+  /**
+   * An operation to be admitted. It is dispatched once admitted, and is rejected if admission fails.
+   */
+  static final class Ticket
+  {
+    private static final int WAITING = 0;
+
+    private static final int QUEUED = 1;
+
+    private static final int STARTED = 2;
+
+    private static final int REJECTED = 3;
+
+    private final Context context;
+
+    private final Handler<Ticket> dispatch;
+
+    private final Handler<Throwable> reject;
+
+    private final AtomicInteger state;
+
+    private volatile long timerId;
+
+    Ticket(final Context context, final Handler<Ticket> dispatch, final Handler<Throwable> reject) {
+      this.context = requireNonNull(context);
+      this.dispatch = requireNonNull(dispatch);
+      this.reject = requireNonNull(reject);
+      this.state = new AtomicInteger(WAITING);
+      this.timerId = -1L;
+    }
+  }
+
+  private final Vertx vertx;
+
+  private final String name;
+
+  private final int maxPendingOperations;
+
+  private final OverflowStrategy overflowStrategy;
+
+  private final long overflowWaitTimeout;
+
+  private final AtomicInteger pending;
+
+  private final ConcurrentLinkedDeque<Ticket> queued;
+
+  private final ConcurrentLinkedDeque<Ticket> waiting;
+
+  AdmissionQueue(final Vertx vertx, final ConnectionOptions connectionOptions) {
+    this.vertx = requireNonNull(vertx);
+    this.name = connectionOptions.name();
+    this.maxPendingOperations = connectionOptions.maxPendingOperations();
+    this.overflowStrategy = connectionOptions.overflowStrategy();
+    this.overflowWaitTimeout = connectionOptions.overflowWaitTimeout();
+    this.pending = new AtomicInteger(0);
+    this.queued = new ConcurrentLinkedDeque<>();
+    this.waiting = new ConcurrentLinkedDeque<>();
+  }
+
+  /**
+   * Returns the count of pending operations: those admitted but not yet started, and those waiting for admission.
+   */
+  int pendingOperations() {
+    return pending.get() + waiting.size();
+  }
+
+  /**
+   * Submits ticket for admission, it will be either dispatched or rejected, as configured.
+   */
+  void submit(final Ticket ticket) {
+    if (maxPendingOperations <= 0) {
+      pending.incrementAndGet();
+      ticket.state.set(Ticket.QUEUED);
+      ticket.dispatch.handle(ticket);
+      return;
+    }
+    if (tryReserve()) {
+      dispatch(ticket);
+      return;
+    }
+    switch (overflowStrategy) {
+      case WAIT:
+        waiting.add(ticket);
+        ticket.timerId = vertx.setTimer(overflowWaitTimeout, t -> {
+          if (ticket.state.compareAndSet(Ticket.WAITING, Ticket.REJECTED)) {
+            waiting.remove(ticket);
+            ticket.reject.handle(new DatabaseOverloadedException(name,
+                "not admitted within " + overflowWaitTimeout + "ms"));
+          }
+        });
+        // a slot might be released meanwhile
+        admitWaiting();
+        break;
+      case DROP_OLDEST:
+        Ticket oldest;
+        while ((oldest = queued.pollFirst()) != null) {
+          // worker executor cannot cancel queued tasks: the task of dropped ticket stays queued, and is skipped by
+          // start() once reached, hence only the not-dropped ones are bounded
+          if (oldest.state.compareAndSet(Ticket.QUEUED, Ticket.REJECTED)) {
+            // the slot of dropped ticket is taken over by the new one
+            Ticket dropped = oldest;
+            dropped.context.runOnContext(v -> dropped.reject.handle(
+                new DatabaseOverloadedException(name, "dropped in favor of newer operation")));
+            dispatch(ticket);
+            return;
+          }
+        }
+        // all started meanwhile
+        if (tryReserve()) {
+          dispatch(ticket);
+        }
+        else {
+          ticket.reject.handle(new DatabaseOverloadedException(name, maxPendingOperations + " pending operations"));
+        }
+        break;
+      default:
+        ticket.reject.handle(new DatabaseOverloadedException(name, maxPendingOperations + " pending operations"));
+    }
+  }
+
+  /**
+   * Invoked by worker when it is about to start the operation. Returns {@code true} if operation should be executed,
+   * or {@code false} if it was dropped meanwhile.
+   */
+  boolean start(final Ticket ticket) {
+    if (!ticket.state.compareAndSet(Ticket.QUEUED, Ticket.STARTED)) {
+      return false;
+    }
+    if (maxPendingOperations > 0 && overflowStrategy == OverflowStrategy.DROP_OLDEST) {
+      queued.remove(ticket);
+    }
+    pending.decrementAndGet();
+    if (!waiting.isEmpty()) {
+      admitWaiting();
+    }
+    return true;
+  }
+
+  /**
+   * Invoked when dispatch of an admitted ticket failed, releases it's slot.
+   */
+  void abort(final Ticket ticket) {
+    if (ticket.state.compareAndSet(Ticket.QUEUED, Ticket.REJECTED)) {
+      queued.remove(ticket);
+      pending.decrementAndGet();
+    }
+  }
+
+  private boolean tryReserve() {
+    while (true) {
+      int current = pending.get();
+      if (current >= maxPendingOperations) {
+        return false;
+      }
+      if (pending.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  private void dispatch(final Ticket ticket) {
+    ticket.state.set(Ticket.QUEUED);
+    if (overflowStrategy == OverflowStrategy.DROP_OLDEST) {
+      queued.add(ticket);
+    }
+    ticket.dispatch.handle(ticket);
+  }
+
+  private void admitWaiting() {
+    while (!waiting.isEmpty() && tryReserve()) {
+      Ticket ticket = waiting.pollFirst();
+      if (ticket != null && ticket.state.compareAndSet(Ticket.WAITING, Ticket.QUEUED)) {
+        vertx.cancelTimer(ticket.timerId);
+        // dispatch from the context of submitter
+        ticket.context.runOnContext(v -> ticket.dispatch.handle(ticket));
+      }
+      else {
+        pending.decrementAndGet();
+      }
+    }
+  }
+}
@@ -0,0 +1,273 @@
+package org.cstamas.vertx.orientdb.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.exception.OConcurrentModificationException;
+import com.orientechnologies.orient.core.exception.OValidationException;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.record.ORecordInternal;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.storage.ORecordDuplicatedException;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import org.cstamas.vertx.orientdb.BatchWriter;
+import org.cstamas.vertx.orientdb.DocumentDatabase;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Default implementation.
+ */
+public class BatchWriterImpl
+    implements BatchWriter
+{
+  private static final class Entry
+  {
+    private final ODocument document;
+
+    private final Context context;
+
+    private final Handler<AsyncResult<ORID>> handler;
+
+    private final ORID identity;
+
+    private final int version;
+
+    Entry(final ODocument document, final Context context, final Handler<AsyncResult<ORID>> handler) {
+      this.document = document;
+      this.context = context;
+      this.handler = handler;
+      this.identity = document.getIdentity().copy();
+      this.version = document.getVersion();
+    }
+
+    /**
+     * Resets identity and version of document as they were before the rolled back transaction, that assigned
+     * temporary identity to new document, so it can be saved again.
+     */
+    void reset() {
+      ORecordInternal.setIdentity(document, new ORecordId(identity));
+      ORecordInternal.setVersion(document, version);
+      document.setDirty();
+    }
+
+    void complete(final AsyncResult<ORID> result) {
+      context.runOnContext(v -> handler.handle(result));
+    }
+  }
+
+  private static final Logger log = LoggerFactory.getLogger(BatchWriterImpl.class);
+
+  private final Vertx vertx;
+
+  private final DocumentDatabase documentDatabase;
+
+  private final int maxBatch;
+
+  private final long maxLingerMs;
+
+  private final Object lock;
+
+  private ArrayList<Entry> pending;
+
+  private long lingerTimer;
+
+  private int inFlight;
+
+  private boolean closed;
+
+  private Context closeContext;
+
+  private Handler<AsyncResult<Void>> closeHandler;
+
+  public BatchWriterImpl(final Vertx vertx,
+                         final DocumentDatabase documentDatabase,
+                         final int maxBatch,
+                         final long maxLingerMs)
+  {
+    if (maxBatch < 1) {
+      throw new IllegalArgumentException("Max batch must be greater than zero: " + maxBatch);
+    }
+    if (maxLingerMs < 1) {
+      throw new IllegalArgumentException("Max linger must be greater than zero: " + maxLingerMs);
+    }
+    this.vertx = requireNonNull(vertx);
+    this.documentDatabase = requireNonNull(documentDatabase);
+    this.maxBatch = maxBatch;
+    this.maxLingerMs = maxLingerMs;
+    this.lock = new Object();
+    this.pending = new ArrayList<>(maxBatch);
+    this.lingerTimer = -1L;
+  }
+
+  @Override
+  public BatchWriter save(final ODocument document, final Handler<AsyncResult<ORID>> handler) {
+    requireNonNull(document);
+    requireNonNull(handler);
+    List<Entry> batch = null;
+    synchronized (lock) {
+      if (closed) {
+        handler.handle(Future.failedFuture(new IllegalStateException("Batch writer closed")));
+        return this;
+      }
+      pending.add(new Entry(document, vertx.getOrCreateContext(), handler));
+      if (pending.size() >= maxBatch) {
+        batch = drain();
+      }
+      else if (lingerTimer == -1L) {
+        lingerTimer = vertx.setTimer(maxLingerMs, this::linger);
+      }
+    }
+    if (batch != null) {
+      write(batch);
+    }
+    return this;
+  }
+
+  @Override
+  public BatchWriter flush() {
+    List<Entry> batch;
+    synchronized (lock) {
+      batch = drain();
+    }
+    if (batch != null) {
+      write(batch);
+    }
+    return this;
+  }
+
+  @Override
+  public void close(final Handler<AsyncResult<Void>> handler) {
+    List<Entry> batch;
+    boolean done;
+    synchronized (lock) {
+      if (closed) {
+        handler.handle(Future.failedFuture(new IllegalStateException("Batch writer already closed")));
+        return;
+      }
+      closed = true;
+      closeContext = vertx.getOrCreateContext();
+      closeHandler = handler;
+      batch = drain();
+      done = inFlight == 0;
+    }
+    if (batch != null) {
+      write(batch);
+    }
+    else if (done) {
+      handler.handle(Future.succeededFuture());
+    }
+  }
+
+  private void linger(final long timerId) {
+    List<Entry> batch = null;
+    synchronized (lock) {
+      // timer may fire after batch was drained and a new timer was set
+      if (lingerTimer == timerId) {
+        batch = drain();
+      }
+    }
+    if (batch != null) {
+      write(batch);
+    }
+  }
+
+  /**
+   * Drains pending entries, if any, must be invoked while holding the lock.
+   */
+  private List<Entry> drain() {
+    if (lingerTimer != -1L) {
+      vertx.cancelTimer(lingerTimer);
+      lingerTimer = -1L;
+    }
+    if (pending.isEmpty()) {
+      return null;
+    }
+    List<Entry> batch = pending;
+    pending = new ArrayList<>(maxBatch);
+    inFlight++;
+    return batch;
+  }
+
+  private void write(final List<Entry> batch) {
+    documentDatabase.exec(false, adb -> {
+      try {
+        if (adb.failed()) {
+          batch.forEach(e -> e.complete(Future.failedFuture(adb.cause())));
+        }
+        else {
+          commit(adb.result(), batch);
+        }
+      }
+      finally {
+        written();
+      }
+    });
+  }
+
+  /**
+   * Commits the batch. If commit fails due to a record (invalid, conflicting or duplicate document), the batch is split
+   * into halves, and each half is committed on it's own, down to batches of single document. Other failures, like
+   * storage or network errors, fail the whole batch, as the other documents would fail the same.
+   */
+  private void commit(final ODatabaseDocumentTx db, final List<Entry> batch) {
+    try {
+      db.begin();
+      for (Entry entry : batch) {
+        db.save(entry.document);
+      }
+      db.commit();
+      batch.forEach(e -> e.complete(Future.succeededFuture(e.document.getIdentity().copy())));
+    }
+    catch (Exception e) {
+      try {
+        db.rollback();
+      }
+      catch (Exception re) {
+        log.debug("Rollback failed", re);
+      }
+      batch.forEach(Entry::reset);
+      if (e instanceof OConcurrentModificationException) {
+        // kick it out of cache
+        db.getLocalCache().deleteRecord(((OConcurrentModificationException) e).getRid());
+      }
+      if (batch.size() == 1 || !isRecordFailure(e)) {
+        batch.forEach(entry -> entry.complete(Future.failedFuture(e)));
+      }
+      else {
+        log.debug("Batch of " + batch.size() + " failed, splitting", e);
+        int half = batch.size() / 2;
+        commit(db, batch.subList(0, half));
+        commit(db, batch.subList(half, batch.size()));
+      }
+    }
+  }
+
+  private static boolean isRecordFailure(final Exception e) {
+    return e instanceof OValidationException
+        || e instanceof OConcurrentModificationException
+        || e instanceof ORecordDuplicatedException;
+  }
+
+  private void written() {
+    Handler<AsyncResult<Void>> handler = null;
+    synchronized (lock) {
+      inFlight--;
+      if (closed && inFlight == 0) {
+        handler = closeHandler;
+      }
+    }
+    if (handler != null) {
+      Handler<AsyncResult<Void>> h = handler;
+      closeContext.runOnContext(v -> h.handle(Future.succeededFuture()));
+    }
+  }
+}
@@ -0,0 +1,247 @@
+package org.cstamas.vertx.orientdb.impl;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.intent.OIntentMassiveInsert;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+import org.cstamas.vertx.orientdb.DocumentDatabase;
+import org.cstamas.vertx.orientdb.ImportOptions;
+import org.cstamas.vertx.orientdb.ImportProgress;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Bulk import of NDJSON source. The source is split into lines incrementally on the context of caller, lines are
+ * gathered into batches, and batches are parsed and saved on workers, in parallel, each in one transaction with
+ * {@link OIntentMassiveInsert} declared. When {@link ImportOptions#parallelism()} batches are being written, the
+ * source is paused, and it is resumed once a batch is committed. All the state is confined to the context of caller,
+ * that must be the context of source too.
+ */
+class BulkImport
+{
+  private static final byte NEWLINE = '\n';
+
+  private final Vertx vertx;
+
+  private final DocumentDatabase documentDatabase;
+
+  private final ResultCache resultCache;
+
+  @Nullable
+  private final String className;
+
+  private final ReadStream<Buffer> source;
+
+  private final ImportOptions options;
+
+  @Nullable
+  private final Handler<ImportProgress> progressHandler;
+
+  private final Handler<AsyncResult<ImportProgress>> handler;
+
+  private List<String> batch;
+
+  @Nullable
+  private Buffer remainder;
+
+  private int inFlight;
+
+  private boolean paused;
+
+  private boolean ended;
+
+  @Nullable
+  private Throwable failure;
+
+  private boolean done;
+
+  private long documents;
+
+  private long batches;
+
+  private long started;
+
+  private long progressTimer;
+
+  BulkImport(final Vertx vertx,
+             final DocumentDatabase documentDatabase,
+             final ResultCache resultCache,
+             @Nullable final String className,
+             final ReadStream<Buffer> source,
+             final ImportOptions options,
+             @Nullable final Handler<ImportProgress> progressHandler,
+             final Handler<AsyncResult<ImportProgress>> handler)
+  {
+    this.vertx = requireNonNull(vertx);
+    this.documentDatabase = requireNonNull(documentDatabase);
+    this.resultCache = requireNonNull(resultCache);
+    this.className = className;
+    this.source = requireNonNull(source);
+    this.options = requireNonNull(options);
+    this.progressHandler = progressHandler;
+    this.handler = requireNonNull(handler);
+    this.batch = new ArrayList<>(options.batchSize());
+    this.progressTimer = -1L;
+  }
+
+  void start() {
+    started = System.nanoTime();
+    if (progressHandler != null) {
+      progressTimer = vertx.setPeriodic(options.progressInterval(), id -> progressHandler.handle(progress()));
+    }
+    source.exceptionHandler(this::fail);
+    source.endHandler(v -> {
+      ended = true;
+      if (failure == null) {
+        if (remainder != null) {
+          line(remainder);
+          remainder = null;
+        }
+        flush();
+      }
+      mayComplete();
+    });
+    source.handler(this::data);
+  }
+
+  private void data(final Buffer buffer) {
+    if (failure != null) {
+      // source is paused, but it may still deliver buffered data
+      return;
+    }
+    int start = 0;
+    for (int i = 0; i < buffer.length(); i++) {
+      if (buffer.getByte(i) == NEWLINE) {
+        Buffer line = buffer.slice(start, i);
+        if (remainder != null) {
+          line = remainder.appendBuffer(line);
+          remainder = null;
+        }
+        line(line);
+        start = i + 1;
+      }
+    }
+    if (start < buffer.length()) {
+      // copy, as source may reuse the buffer
+      Buffer rest = buffer.getBuffer(start, buffer.length());
+      remainder = remainder == null ? rest : remainder.appendBuffer(rest);
+    }
+  }
+
+  private void line(final Buffer line) {
+    String json = line.toString("UTF-8").trim();
+    if (json.isEmpty()) {
+      return;
+    }
+    batch.add(json);
+    if (batch.size() >= options.batchSize()) {
+      flush();
+    }
+  }
+
+  private void flush() {
+    if (batch.isEmpty()) {
+      return;
+    }
+    List<String> lines = batch;
+    batch = new ArrayList<>(options.batchSize());
+    inFlight++;
+    if (inFlight >= options.parallelism() && !paused) {
+      paused = true;
+      source.pause();
+    }
+    documentDatabase.call(false, db -> write(db, lines), written -> {
+      inFlight--;
+      if (written.failed()) {
+        fail(written.cause());
+      }
+      else {
+        documents += written.result();
+        batches++;
+        if (paused && inFlight < options.parallelism()) {
+          paused = false;
+          source.resume();
+        }
+      }
+      mayComplete();
+    });
+  }
+
+  private int write(final ODatabaseDocumentTx db, final List<String> lines) {
+    db.declareIntent(new OIntentMassiveInsert());
+    try {
+      Set<OClass> classes = new HashSet<>();
+      db.begin();
+      for (String line : lines) {
+        ODocument document = className == null ? new ODocument() : new ODocument(className);
+        document.fromJSON(line);
+        db.save(document);
+        if (document.getSchemaClass() != null) {
+          classes.add(document.getSchemaClass());
+        }
+      }
+      db.commit();
+      if (resultCache.isEnabled()) {
+        // record hooks are disabled by massive insert intent
+        classes.forEach(resultCache::invalidate);
+      }
+      return lines.size();
+    }
+    catch (Exception e) {
+      if (db.getTransaction().isActive()) {
+        db.rollback();
+      }
+      throw e;
+    }
+    finally {
+      db.declareIntent(null);
+    }
+  }
+
+  private void fail(final Throwable cause) {
+    if (failure == null) {
+      failure = cause;
+      batch.clear();
+      remainder = null;
+      if (!paused && !ended) {
+        paused = true;
+        source.pause();
+      }
+    }
+    mayComplete();
+  }
+
+  private void mayComplete() {
+    if (done || inFlight > 0 || (!ended && failure == null)) {
+      return;
+    }
+    done = true;
+    if (progressTimer != -1L) {
+      vertx.cancelTimer(progressTimer);
+    }
+    if (failure != null) {
+      handler.handle(Future.failedFuture(failure));
+    }
+    else {
+      handler.handle(Future.succeededFuture(progress()));
+    }
+  }
+
+  private ImportProgress progress() {
+    return new ImportProgress(documents, batches, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+  }
+}
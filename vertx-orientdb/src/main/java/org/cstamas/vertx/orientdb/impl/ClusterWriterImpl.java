@@ -0,0 +1,84 @@
+package org.cstamas.vertx.orientdb.impl;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import org.cstamas.vertx.orientdb.ClusterWriter;
+import org.cstamas.vertx.orientdb.DocumentDatabase;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Default implementation.
+ */
+public class ClusterWriterImpl
+    implements ClusterWriter
+{
+  private final DocumentDatabase documentDatabase;
+
+  private final String className;
+
+  private final AtomicInteger threads;
+
+  private final ThreadLocal<Integer> threadSlot;
+
+  private volatile String[] clusterNames;
+
+  public ClusterWriterImpl(final DocumentDatabase documentDatabase, final String className) {
+    this.documentDatabase = requireNonNull(documentDatabase);
+    this.className = requireNonNull(className);
+    this.threads = new AtomicInteger(0);
+    this.threadSlot = ThreadLocal.withInitial(threads::getAndIncrement);
+  }
+
+  @Override
+  public ClusterWriter save(final ODocument document, final Handler<AsyncResult<ORID>> handler) {
+    requireNonNull(document);
+    requireNonNull(handler);
+    documentDatabase.call(false, db -> save(db, threadSlot.get(), document), handler);
+    return this;
+  }
+
+  @Override
+  public ClusterWriter save(final Object key, final ODocument document, final Handler<AsyncResult<ORID>> handler) {
+    requireNonNull(key);
+    requireNonNull(document);
+    requireNonNull(handler);
+    int slot = key.hashCode();
+    documentDatabase.call(false, db -> save(db, slot, document), handler);
+    return this;
+  }
+
+  private ORID save(final ODatabaseDocumentTx db, final int slot, final ODocument document) {
+    String[] clusters = clusterNames(db);
+    if (document.getClassName() == null) {
+      document.setClassName(className);
+    }
+    db.save(document, clusters[Math.floorMod(slot, clusters.length)]);
+    return document.getIdentity().copy();
+  }
+
+  private String[] clusterNames(final ODatabaseDocumentTx db) {
+    String[] result = clusterNames;
+    if (result == null) {
+      OClass clazz = db.getMetadata().getSchema().getClass(className);
+      if (clazz == null) {
+        throw new IllegalArgumentException("Cluster writer: Class not found: " + className);
+      }
+      int[] clusterIds = clazz.getClusterIds().clone();
+      Arrays.sort(clusterIds);
+      result = new String[clusterIds.length];
+      for (int i = 0; i < clusterIds.length; i++) {
+        result[i] = db.getClusterNameById(clusterIds[i]);
+      }
+      clusterNames = result;
+    }
+    return result;
+  }
+}
@@ -0,0 +1,206 @@
+package org.cstamas.vertx.orientdb.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import javax.annotation.Nullable;
+
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.db.ODatabaseLifecycleListener;
+import com.orientechnologies.orient.core.db.OPartitionedDatabasePool;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Handle of a created database, held by manager registry and by database instances, so operations need no registry
+ * lookup. It is reference counted: the registry holds one reference, and each operation holds one from submission
+ * until it is done. Closing the handle releases the registry reference, and the pool and workers are closed when
+ * the last operation is done, so in flight operations are drained instead of having the pool closed underneath them.
+ * <p>
+ * If read split is enabled, read-only operations are executed by their own workers, with connections of read pools,
+ * chosen round-robin. Otherwise, they share the pool and workers of read-write operations. Ordered operations are
+ * queued by handle, see {@link OrderedTasks}.
+ * <p>
+ * If there are server nodes, operations acquire connections from them instead of the database pool, that is pool of
+ * the primary server node. Only read-only operations of read split go to read pools instead.
+ * <p>
+ * Live queries subscribed on the database do not hold references, they are unsubscribed when the handle is closed,
+ * and unsubscribing holds a reference until it is done.
+ */
+class DatabaseHandle
+{
+  final String name;
+
+  final OPartitionedDatabasePool databasePool;
+
+  @Nullable
+  final ServerNodes serverNodes;
+
+  final WorkerExecutor workerExecutor;
+
+  final List<OPartitionedDatabasePool> readPools;
+
+  final WorkerExecutor readWorkerExecutor;
+
+  final OrderedTasks orderedTasks;
+
+  final AdmissionQueue admissionQueue;
+
+  final StatementInspection statementInspection;
+
+  final ResultCache resultCache;
+
+  final IntConsumer attemptsListener;
+
+  final Set<LiveQueryStream> liveQueries;
+
+  @Nullable
+  private final ODatabaseLifecycleListener resultCacheListener;
+
+  private final Vertx vertx;
+
+  private final AtomicInteger references;
+
+  private final AtomicInteger readPoolIndex;
+
+  private final Future<Void> closed;
+
+  DatabaseHandle(final Vertx vertx,
+                 final String name,
+                 final OPartitionedDatabasePool databasePool,
+                 @Nullable final ServerNodes serverNodes,
+                 final WorkerExecutor workerExecutor,
+                 final List<OPartitionedDatabasePool> readPools,
+                 final WorkerExecutor readWorkerExecutor,
+                 final AdmissionQueue admissionQueue,
+                 final StatementInspection statementInspection,
+                 final ResultCache resultCache,
+                 @Nullable final ODatabaseLifecycleListener resultCacheListener,
+                 final IntConsumer attemptsListener)
+  {
+    this.vertx = requireNonNull(vertx);
+    this.name = requireNonNull(name);
+    this.databasePool = requireNonNull(databasePool);
+    this.serverNodes = serverNodes;
+    this.workerExecutor = requireNonNull(workerExecutor);
+    this.readPools = requireNonNull(readPools);
+    this.readWorkerExecutor = requireNonNull(readWorkerExecutor);
+    this.orderedTasks = new OrderedTasks();
+    this.admissionQueue = requireNonNull(admissionQueue);
+    this.statementInspection = requireNonNull(statementInspection);
+    this.resultCache = requireNonNull(resultCache);
+    this.resultCacheListener = resultCacheListener;
+    this.attemptsListener = requireNonNull(attemptsListener);
+    this.liveQueries = ConcurrentHashMap.newKeySet();
+    this.references = new AtomicInteger(1);
+    this.readPoolIndex = new AtomicInteger(0);
+    this.closed = Future.future();
+  }
+
+  /**
+   * Returns the pool to acquire connection from.
+   */
+  OPartitionedDatabasePool pool(final boolean readOnly) {
+    if (!readOnly || readPools.isEmpty()) {
+      return databasePool;
+    }
+    return readPools.get(Math.floorMod(readPoolIndex.getAndIncrement(), readPools.size()));
+  }
+
+  /**
+   * Returns the pool the connection was acquired from, by it's URL. Falls back to database pool.
+   */
+  OPartitionedDatabasePool pool(final ODatabaseDocumentTx db) {
+    List<OPartitionedDatabasePool> pools = new ArrayList<>(readPools);
+    if (serverNodes != null) {
+      pools.addAll(serverNodes.pools());
+    }
+    for (OPartitionedDatabasePool pool : pools) {
+      if (pool.getUrl().equals(db.getURL())) {
+        return pool;
+      }
+    }
+    return databasePool;
+  }
+
+  /**
+   * Returns the worker executor to execute operation with.
+   */
+  WorkerExecutor executor(final boolean readOnly) {
+    return readOnly ? readWorkerExecutor : workerExecutor;
+  }
+
+  /**
+   * Acquires a reference for an operation. Returns {@code false} if handle is closed, and operation must not be
+   * executed.
+   */
+  boolean retain() {
+    while (true) {
+      int current = references.get();
+      if (current == 0) {
+        return false;
+      }
+      if (references.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Releases a reference acquired by {@link #retain()}.
+   */
+  void release() {
+    if (references.decrementAndGet() == 0) {
+      dispose();
+    }
+  }
+
+  /**
+   * Closes the handle, the handler is invoked once all in flight operations are done and resources are closed. Must
+   * be invoked only once, by the owner of registry reference.
+   */
+  void close(final Handler<AsyncResult<Void>> handler) {
+    closed.setHandler(handler);
+    // while pools are open, unsubscribing holds a reference
+    liveQueries.forEach(LiveQueryStream::close);
+    release();
+  }
+
+  private void dispose() {
+    // the last release may happen on a thread of the worker executor that is to be closed
+    vertx.<Void>executeBlocking(
+        f -> {
+          try {
+            workerExecutor.close();
+            if (readWorkerExecutor != workerExecutor) {
+              readWorkerExecutor.close();
+            }
+            if (serverNodes != null) {
+              serverNodes.close();
+            }
+            databasePool.close();
+            readPools.forEach(OPartitionedDatabasePool::close);
+            if (resultCacheListener != null) {
+              Orient.instance().removeDbLifecycleListener(resultCacheListener);
+            }
+            f.complete();
+          }
+          catch (Exception e) {
+            f.fail(e);
+          }
+        },
+        false,
+        closed.completer()
+    );
+  }
+}
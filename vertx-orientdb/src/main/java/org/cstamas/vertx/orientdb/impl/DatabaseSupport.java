@@ -1,8 +1,16 @@
 package org.cstamas.vertx.orientdb.impl;
 
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
+
+import com.orientechnologies.orient.core.exception.OConcurrentModificationException;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import org.cstamas.vertx.orientdb.Database;
+import org.cstamas.vertx.orientdb.RetryPolicy;
 
 import static java.util.Objects.requireNonNull;
 
@@ -12,22 +20,162 @@ import static java.util.Objects.requireNonNull;
 public abstract class DatabaseSupport<T, OT>
     implements Database<T, OT>
 {
-  protected final String name;
+  final DatabaseHandle handle;
 
   protected final ManagerImpl manager;
 
-  public DatabaseSupport(final String name, final ManagerImpl manager) {
-    this.name = requireNonNull(name);
+  DatabaseSupport(final DatabaseHandle handle, final ManagerImpl manager) {
+    this.handle = requireNonNull(handle);
     this.manager = requireNonNull(manager);
   }
 
   @Override
   public String getName() {
-    return name;
+    return handle.name;
+  }
+
+  @Override
+  public int getPendingOperations() {
+    return handle.admissionQueue.pendingOperations();
+  }
+
+  @Override
+  public T exec(final Handler<AsyncResult<OT>> handler) {
+    return exec(manager.isOrderedExec(), handler);
+  }
+
+  @Override
+  public T exec(final boolean ordered, final Handler<AsyncResult<OT>> handler) {
+    return exec(ordered, false, handler, null);
+  }
+
+  @Override
+  public T execReadOnly(final Handler<AsyncResult<OT>> handler) {
+    return execReadOnly(manager.isOrderedExec(), handler);
+  }
+
+  @Override
+  public T execReadOnly(final boolean ordered, final Handler<AsyncResult<OT>> handler) {
+    return exec(ordered, true, handler, null);
+  }
+
+  /**
+   * Executes handler with pooled connection, taken from read pool if {@code readOnly}, and invokes optional {@code
+   * releaseHandler} once the connection is returned to pool.
+   */
+  abstract T exec(boolean ordered,
+                  boolean readOnly,
+                  Handler<AsyncResult<OT>> handler,
+                  @Nullable Handler<Void> releaseHandler);
+
+  @Override
+  public <R> T call(final Function<OT, R> function, final Handler<AsyncResult<R>> handler) {
+    return call(manager.isOrderedExec(), function, handler);
+  }
+
+  @Override
+  public <R> T call(final boolean ordered, final Function<OT, R> function, final Handler<AsyncResult<R>> handler) {
+    return call(ordered, false, function, handler);
   }
 
+  @Override
+  public <R> T callReadOnly(final Function<OT, R> function, final Handler<AsyncResult<R>> handler) {
+    return callReadOnly(manager.isOrderedExec(), function, handler);
+  }
+
+  @Override
+  public <R> T callReadOnly(final boolean ordered,
+                            final Function<OT, R> function,
+                            final Handler<AsyncResult<R>> handler)
+  {
+    return call(ordered, true, function, handler);
+  }
+
+  private <R> T call(final boolean ordered,
+                     final boolean readOnly,
+                     final Function<OT, R> function,
+                     final Handler<AsyncResult<R>> handler)
+  {
+    requireNonNull(function);
+    requireNonNull(handler);
+    Context context = manager.getVertx().getOrCreateContext();
+    Future<R> result = Future.future();
+    return exec(
+        ordered,
+        readOnly,
+        aot -> {
+          if (aot.failed()) {
+            result.tryFail(aot.cause());
+          }
+          else {
+            try {
+              result.tryComplete(function.apply(aot.result()));
+            }
+            catch (Exception e) {
+              result.tryFail(e);
+            }
+          }
+        },
+        v -> context.runOnContext(x -> handler.handle(result))
+    );
+  }
+
+  @Override
+  public T retry(final RetryPolicy retryPolicy,
+                 final Handler<OT> handler,
+                 final Handler<AsyncResult<Integer>> resultHandler)
+  {
+    requireNonNull(retryPolicy);
+    requireNonNull(handler);
+    requireNonNull(resultHandler);
+    return attempt(manager.getVertx().getOrCreateContext(), retryPolicy, handler, resultHandler, 1);
+  }
+
+  private T attempt(final Context context,
+                    final RetryPolicy retryPolicy,
+                    final Handler<OT> handler,
+                    final Handler<AsyncResult<Integer>> resultHandler,
+                    final int attempt)
+  {
+    return exec(aot -> {
+      Future<Integer> result;
+      if (aot.failed()) {
+        result = Future.failedFuture(aot.cause());
+      }
+      else {
+        try {
+          handler.handle(aot.result());
+          result = Future.succeededFuture(attempt);
+        }
+        catch (OConcurrentModificationException e) {
+          recover(aot.result(), e);
+          if (attempt < retryPolicy.maxAttempts()) {
+            // release connection and worker, and retry later
+            long backoff = retryPolicy.backoff(attempt);
+            context.runOnContext(v -> manager.getVertx().setTimer(backoff,
+                t -> attempt(context, retryPolicy, handler, resultHandler, attempt + 1)));
+            return;
+          }
+          result = Future.failedFuture(e);
+        }
+        catch (Exception e) {
+          result = Future.failedFuture(e);
+        }
+      }
+      handle.attemptsListener.accept(attempt);
+      Future<Integer> r = result;
+      context.runOnContext(v -> resultHandler.handle(r));
+    });
+  }
+
+  /**
+   * Invoked when handler failed with {@link OConcurrentModificationException}, to roll back the transaction if still
+   * active, and to evict the stale record from local cache of connection.
+   */
+  protected abstract void recover(OT connection, OConcurrentModificationException e);
+
   @Override
   public void close(final Handler<AsyncResult<Void>> handler) {
-    manager.close(getName(), handler);
+    manager.close(handle, handler);
   }
 }
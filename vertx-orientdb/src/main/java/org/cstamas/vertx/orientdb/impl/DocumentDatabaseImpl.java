@@ -1,9 +1,38 @@
 package org.cstamas.vertx.orientdb.impl;
 
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
+
+import com.orientechnologies.orient.core.command.OCommandResultListener;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.exception.OConcurrentModificationException;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.OCommandSQL;
+import com.orientechnologies.orient.core.sql.query.OSQLAsynchQuery;
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
+import org.cstamas.vertx.orientdb.Aggregate;
+import org.cstamas.vertx.orientdb.BatchWriter;
+import org.cstamas.vertx.orientdb.CacheStats;
+import org.cstamas.vertx.orientdb.ClusterWriter;
+import org.cstamas.vertx.orientdb.DocumentConverter;
 import org.cstamas.vertx.orientdb.DocumentDatabase;
+import org.cstamas.vertx.orientdb.ImportOptions;
+import org.cstamas.vertx.orientdb.ImportProgress;
+import org.cstamas.vertx.orientdb.LiveEvent;
+
+import static java.util.Objects.requireNonNull;
 
 /**
  * Default implementation.
@@ -12,13 +41,250 @@ public class DocumentDatabaseImpl
     extends DatabaseSupport<DocumentDatabase, ODatabaseDocumentTx>
     implements DocumentDatabase
 {
-  public DocumentDatabaseImpl(final String name, final ManagerImpl manager) {
-    super(name, manager);
+  DocumentDatabaseImpl(final DatabaseHandle handle, final ManagerImpl manager) {
+    super(handle, manager);
   }
 
   @Override
-  public DocumentDatabase exec(final Handler<AsyncResult<ODatabaseDocumentTx>> handler) {
-    manager.exec(getName(), handler);
+  DocumentDatabase exec(final boolean ordered,
+                        final boolean readOnly,
+                        final Handler<AsyncResult<ODatabaseDocumentTx>> handler,
+                        @Nullable final Handler<Void> releaseHandler)
+  {
+    manager.exec(handle, ordered, readOnly, handler, releaseHandler);
     return this;
   }
+
+  @Override
+  protected void recover(final ODatabaseDocumentTx connection, final OConcurrentModificationException e) {
+    if (connection.getTransaction().isActive()) {
+      connection.rollback();
+    }
+    connection.getLocalCache().deleteRecord(e.getRid());
+  }
+
+  @Override
+  public BatchWriter batchWriter(final int maxBatch, final long maxLingerMs) {
+    return new BatchWriterImpl(manager.getVertx(), this, maxBatch, maxLingerMs);
+  }
+
+  @Override
+  public ClusterWriter clusterWriter(final String className) {
+    return new ClusterWriterImpl(this, className);
+  }
+
+  @Override
+  public DocumentDatabase query(final String sql,
+                                @Nullable final Map<String, Object> params,
+                                final Handler<AsyncResult<List<ODocument>>> handler)
+  {
+    return query(sql, params == null ? new Object[0] : new Object[]{params}, handler);
+  }
+
+  @Override
+  public DocumentDatabase query(final String sql,
+                                final List<Object> params,
+                                final Handler<AsyncResult<List<ODocument>>> handler)
+  {
+    return query(sql, params.toArray(), handler);
+  }
+
+  @Override
+  public DocumentDatabase command(final String sql,
+                                  @Nullable final Map<String, Object> params,
+                                  final Handler<AsyncResult<Object>> handler)
+  {
+    return command(sql, params == null ? new Object[0] : new Object[]{params}, handler);
+  }
+
+  @Override
+  public DocumentDatabase command(final String sql,
+                                  final List<Object> params,
+                                  final Handler<AsyncResult<Object>> handler)
+  {
+    return command(sql, params.toArray(), handler);
+  }
+
+  @Override
+  public DocumentDatabase fanOutQuery(final String className,
+                                      @Nullable final String where,
+                                      @Nullable final Map<String, Object> params,
+                                      final Handler<AsyncResult<List<ODocument>>> handler)
+  {
+    new FanOutQuery(this).concat(className, where, params, handler);
+    return this;
+  }
+
+  @Override
+  public DocumentDatabase fanOutQuery(final String className,
+                                      @Nullable final String where,
+                                      @Nullable final Map<String, Object> params,
+                                      final String orderBy,
+                                      final int limit,
+                                      final Handler<AsyncResult<List<ODocument>>> handler)
+  {
+    new FanOutQuery(this).ordered(className, where, params, orderBy, limit, handler);
+    return this;
+  }
+
+  @Override
+  public DocumentDatabase fanOutAggregate(final String className,
+                                          @Nullable final String where,
+                                          @Nullable final Map<String, Object> params,
+                                          final Aggregate aggregate,
+                                          @Nullable final String field,
+                                          final Handler<AsyncResult<Object>> handler)
+  {
+    new FanOutQuery(this).aggregate(className, where, params, aggregate, field, handler);
+    return this;
+  }
+
+  @Override
+  public CacheStats getStatementInspectionStats() {
+    return handle.statementInspection.stats();
+  }
+
+  @Override
+  public CacheStats getResultCacheStats() {
+    return handle.resultCache.stats();
+  }
+
+  private DocumentDatabase query(final String sql,
+                                 final Object[] args,
+                                 final Handler<AsyncResult<List<ODocument>>> handler)
+  {
+    StatementInspection statementInspection = handle.statementInspection;
+    ResultCache resultCache = handle.resultCache;
+    if (resultCache.isEnabled()) {
+      List<ODocument> cached = resultCache.get(sql, args);
+      if (cached != null) {
+        manager.getVertx().getOrCreateContext().runOnContext(v -> handler.handle(Future.succeededFuture(cached)));
+        return this;
+      }
+    }
+    callReadOnly(db -> {
+      String targetClass = resultCache.isEnabled() ?
+          resultCache.targetClass(statementInspection.get(sql, db).parsed()) : null;
+      long generation = targetClass != null ? resultCache.generation(targetClass) : 0L;
+      List<ODocument> result = db.query(new OSQLSynchQuery<ODocument>(sql), args);
+      result.forEach(ODocument::detach);
+      if (targetClass != null) {
+        resultCache.put(sql, args, targetClass, generation, result);
+      }
+      return result;
+    }, handler);
+    return this;
+  }
+
+  private DocumentDatabase command(final String sql,
+                                   final Object[] args,
+                                   final Handler<AsyncResult<Object>> handler)
+  {
+    call(db -> db.command(new OCommandSQL(sql)).execute(args), handler);
+    return this;
+  }
+
+  @Override
+  public ReadStream<ODocument> queryStream(final String sql, @Nullable final Map<String, Object> params) {
+    return stream(sql, params, document -> {
+      document.detach();
+      return document;
+    });
+  }
+
+  @Override
+  public ReadStream<JsonObject> queryJsonStream(final String sql, @Nullable final Map<String, Object> params) {
+    return stream(sql, params, DocumentConverter.DEFAULT::toJson);
+  }
+
+  @Override
+  public ReadStream<LiveEvent> liveQuery(final String sql, @Nullable final Map<String, Object> params) {
+    return new LiveQueryStream(this, handle, manager.getVertx().getOrCreateContext(), requireNonNull(sql), params);
+  }
+
+  @Override
+  public DocumentDatabase importJson(@Nullable final String className,
+                                     final ReadStream<Buffer> source,
+                                     final ImportOptions options,
+                                     @Nullable final Handler<ImportProgress> progressHandler,
+                                     final Handler<AsyncResult<ImportProgress>> handler)
+  {
+    new BulkImport(manager.getVertx(), this, handle.resultCache, className, source, options, progressHandler, handler)
+        .start();
+    return this;
+  }
+
+  @Override
+  public DocumentDatabase exportClass(final String className,
+                                      final WriteStream<Buffer> target,
+                                      final Handler<AsyncResult<Long>> handler)
+  {
+    new NdjsonExport(this, className, target, handler).start();
+    return this;
+  }
+
+  @Override
+  public DocumentDatabase exportQuery(final String sql,
+                                      @Nullable final Map<String, Object> params,
+                                      final WriteStream<Buffer> target,
+                                      final Handler<AsyncResult<Long>> handler)
+  {
+    NdjsonExport.pipe(stream(sql, params, document -> NdjsonExport.line(Buffer.buffer(), document)), target, handler);
+    return this;
+  }
+
+  private <T> ReadStream<T> stream(final String sql,
+                                   @Nullable final Map<String, Object> params,
+                                   final Function<ODocument, T> mapper)
+  {
+    Context context = manager.getVertx().getOrCreateContext();
+    if (manager.isUseEventLoop()) {
+      // producer would block the event loop, that is the only thread draining the stream
+      return new QueryStreamImpl<T>(context, handle.name, 1, QueryStreamImpl.DEFAULT_PAUSE_TIMEOUT,
+          stream -> stream.end(new IllegalStateException("Query stream: Not supported with useEventLoop: "
+              + handle.name)));
+    }
+    return new QueryStreamImpl<T>(
+        context,
+        handle.name,
+        QueryStreamImpl.DEFAULT_BUFFER_SIZE,
+        QueryStreamImpl.DEFAULT_PAUSE_TIMEOUT,
+        stream -> execReadOnly(false, adb -> {
+          if (adb.failed()) {
+            stream.end(adb.cause());
+            return;
+          }
+          try {
+            OSQLAsynchQuery<ODocument> query = new OSQLAsynchQuery<>(sql, new OCommandResultListener()
+            {
+              @Override
+              public boolean result(final Object record) {
+                ODocument document = ((OIdentifiable) record).getRecord();
+                return stream.offer(mapper.apply(document));
+              }
+
+              @Override
+              public void end() {
+                // nop
+              }
+
+              @Override
+              public Object getResult() {
+                return null;
+              }
+            });
+            if (params == null) {
+              adb.result().command(query).execute();
+            }
+            else {
+              adb.result().command(query).execute(params);
+            }
+            stream.end(null);
+          }
+          catch (Exception e) {
+            stream.end(e);
+          }
+        })
+    );
+  }
 }
@@ -0,0 +1,260 @@
+package org.cstamas.vertx.orientdb.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
+
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import org.cstamas.vertx.orientdb.Aggregate;
+import org.cstamas.vertx.orientdb.DocumentDatabase;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Query fanned out over clusters of a class: the query is split into per cluster subqueries ({@code select from
+ * cluster:name ...}), that are executed concurrently on separate pooled connections, and their results are merged on
+ * the context of caller, by concatenation, by ordered merge of sorted partial results, or by combining partial
+ * aggregates.
+ */
+class FanOutQuery
+{
+  private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+  private static final Pattern ORDER_BY = Pattern.compile("([A-Za-z_][A-Za-z0-9_]*)(?:\\s+(?i)(asc|desc))?");
+
+  private static final String AGGREGATE_ALIAS = "fanout";
+
+  private final DocumentDatabase documentDatabase;
+
+  FanOutQuery(final DocumentDatabase documentDatabase) {
+    this.documentDatabase = requireNonNull(documentDatabase);
+  }
+
+  /**
+   * Concatenates the results of subqueries.
+   */
+  void concat(final String className,
+              @Nullable final String where,
+              @Nullable final Map<String, Object> params,
+              final Handler<AsyncResult<List<ODocument>>> handler)
+  {
+    fanOut(className, cluster -> "select from cluster:" + cluster + where(where), params, parts -> {
+      List<ODocument> result = new ArrayList<>(parts.stream().mapToInt(List::size).sum());
+      parts.forEach(result::addAll);
+      return result;
+    }, handler);
+  }
+
+  /**
+   * Merges the sorted results of subqueries, keeping the order. If {@code limit} is greater than zero, each subquery
+   * is limited too.
+   */
+  void ordered(final String className,
+               @Nullable final String where,
+               @Nullable final Map<String, Object> params,
+               final String orderBy,
+               final int limit,
+               final Handler<AsyncResult<List<ODocument>>> handler)
+  {
+    Matcher matcher = ORDER_BY.matcher(orderBy.trim());
+    if (!matcher.matches()) {
+      throw new IllegalArgumentException("Fan-out: Invalid order by: " + orderBy);
+    }
+    String field = matcher.group(1);
+    boolean descending = "desc".equalsIgnoreCase(matcher.group(2));
+    String suffix = " order by " + field + (descending ? " desc" : " asc") + (limit > 0 ? " limit " + limit : "");
+    Comparator<ODocument> comparator = (d1, d2) -> compare(d1.field(field), d2.field(field));
+    Comparator<ODocument> order = descending ? comparator.reversed() : comparator;
+    fanOut(className, cluster -> "select from cluster:" + cluster + where(where) + suffix, params,
+        parts -> merge(parts, order, limit), handler);
+  }
+
+  /**
+   * Combines partial aggregates of subqueries.
+   */
+  void aggregate(final String className,
+                 @Nullable final String where,
+                 @Nullable final Map<String, Object> params,
+                 final Aggregate aggregate,
+                 @Nullable final String field,
+                 final Handler<AsyncResult<Object>> handler)
+  {
+    String projection;
+    if (aggregate == Aggregate.COUNT) {
+      projection = "count(*)";
+    }
+    else {
+      if (field == null || !IDENTIFIER.matcher(field).matches()) {
+        throw new IllegalArgumentException("Fan-out: Invalid field: " + field);
+      }
+      projection = aggregate.name().toLowerCase(Locale.ENGLISH) + "(" + field + ")";
+    }
+    fanOut(className,
+        cluster -> "select " + projection + " as " + AGGREGATE_ALIAS + " from cluster:" + cluster + where(where),
+        params,
+        parts -> combine(aggregate, parts),
+        handler);
+  }
+
+  private <R> void fanOut(final String className,
+                          final Function<String, String> subquery,
+                          @Nullable final Map<String, Object> params,
+                          final Function<List<List<ODocument>>, R> merger,
+                          final Handler<AsyncResult<R>> handler)
+  {
+    if (!IDENTIFIER.matcher(className).matches()) {
+      throw new IllegalArgumentException("Fan-out: Invalid class name: " + className);
+    }
+    Object[] args = params == null ? new Object[0] : new Object[]{params};
+    documentDatabase.callReadOnly(false, db -> clusterNames(db, className), clusters -> {
+      if (clusters.failed()) {
+        handler.handle(Future.failedFuture(clusters.cause()));
+        return;
+      }
+      List<Future> parts = new ArrayList<>(clusters.result().size());
+      for (String cluster : clusters.result()) {
+        Future<List<ODocument>> part = Future.future();
+        String sql = subquery.apply(cluster);
+        documentDatabase.callReadOnly(false, db -> query(db, sql, args), part.completer());
+        parts.add(part);
+      }
+      CompositeFuture.all(parts).setHandler(all -> {
+        if (all.failed()) {
+          handler.handle(Future.failedFuture(all.cause()));
+          return;
+        }
+        Future<R> result;
+        try {
+          result = Future.succeededFuture(merger.apply(all.result().list()));
+        }
+        catch (Exception e) {
+          result = Future.failedFuture(e);
+        }
+        handler.handle(result);
+      });
+    });
+  }
+
+  private List<String> clusterNames(final ODatabaseDocumentTx db, final String className) {
+    OClass clazz = db.getMetadata().getSchema().getClass(className);
+    if (clazz == null) {
+      throw new IllegalArgumentException("Fan-out: Class not found: " + className);
+    }
+    int[] clusterIds = clazz.getPolymorphicClusterIds().clone();
+    Arrays.sort(clusterIds);
+    List<String> result = new ArrayList<>(clusterIds.length);
+    for (int clusterId : clusterIds) {
+      // abstract classes have no cluster
+      if (clusterId >= 0) {
+        result.add(db.getClusterNameById(clusterId));
+      }
+    }
+    return result;
+  }
+
+  private List<ODocument> query(final ODatabaseDocumentTx db, final String sql, final Object[] args) {
+    List<ODocument> result = db.query(new OSQLSynchQuery<ODocument>(sql), args);
+    result.forEach(ODocument::detach);
+    return result;
+  }
+
+  private static String where(@Nullable final String where) {
+    return where == null || where.trim().isEmpty() ? "" : " where " + where;
+  }
+
+  private static List<ODocument> merge(final List<List<ODocument>> parts,
+                                       final Comparator<ODocument> order,
+                                       final int limit)
+  {
+    // k-way merge: queue holds the head of each part, as {part, index}
+    PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, parts.size()),
+        (h1, h2) -> order.compare(parts.get(h1[0]).get(h1[1]), parts.get(h2[0]).get(h2[1])));
+    for (int i = 0; i < parts.size(); i++) {
+      if (!parts.get(i).isEmpty()) {
+        heads.add(new int[]{i, 0});
+      }
+    }
+    List<ODocument> result = new ArrayList<>();
+    while (!heads.isEmpty() && (limit < 1 || result.size() < limit)) {
+      int[] head = heads.poll();
+      List<ODocument> part = parts.get(head[0]);
+      result.add(part.get(head[1]));
+      if (++head[1] < part.size()) {
+        heads.add(head);
+      }
+    }
+    return result;
+  }
+
+  @Nullable
+  private static Object combine(final Aggregate aggregate, final List<List<ODocument>> parts) {
+    Object result = null;
+    boolean integral = true;
+    long longSum = 0L;
+    double doubleSum = 0d;
+    for (List<ODocument> part : parts) {
+      Object value = part.isEmpty() ? null : part.get(0).field(AGGREGATE_ALIAS);
+      if (value == null) {
+        continue;
+      }
+      switch (aggregate) {
+        case COUNT:
+        case SUM:
+          Number number = (Number) value;
+          if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            longSum += number.longValue();
+          }
+          else {
+            integral = false;
+          }
+          doubleSum += number.doubleValue();
+          break;
+        case MIN:
+          result = result == null || compare(value, result) < 0 ? value : result;
+          break;
+        case MAX:
+          result = result == null || compare(value, result) > 0 ? value : result;
+          break;
+        default:
+          throw new IllegalArgumentException("Fan-out: Unsupported aggregate: " + aggregate);
+      }
+    }
+    if (aggregate == Aggregate.COUNT) {
+      return longSum;
+    }
+    if (aggregate == Aggregate.SUM) {
+      return integral ? (Object) longSum : (Object) doubleSum;
+    }
+    return result;
+  }
+
+  /**
+   * Compares field values, {@code null} sorting first, and numbers of different types compared by value.
+   */
+  @SuppressWarnings("unchecked")
+  private static int compare(@Nullable final Object v1, @Nullable final Object v2) {
+    if (v1 == null || v2 == null) {
+      return v1 == null ? (v2 == null ? 0 : -1) : 1;
+    }
+    if (v1 instanceof Number && v2 instanceof Number && v1.getClass() != v2.getClass()) {
+      return Double.compare(((Number) v1).doubleValue(), ((Number) v2).doubleValue());
+    }
+    return ((Comparable<Object>) v1).compareTo(v2);
+  }
+}
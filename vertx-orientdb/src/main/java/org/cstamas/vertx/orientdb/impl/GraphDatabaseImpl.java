@@ -1,5 +1,8 @@
 package org.cstamas.vertx.orientdb.impl;
 
+import javax.annotation.Nullable;
+
+import com.orientechnologies.orient.core.exception.OConcurrentModificationException;
 import com.tinkerpop.blueprints.impls.orient.OrientGraph;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
@@ -14,13 +17,25 @@ public class GraphDatabaseImpl
     extends DatabaseSupport<GraphDatabase, OrientGraph>
     implements GraphDatabase
 {
-  public GraphDatabaseImpl(final String name, final ManagerImpl manager) {
-    super(name, manager);
+  GraphDatabaseImpl(final DatabaseHandle handle, final ManagerImpl manager) {
+    super(handle, manager);
   }
 
   @Override
-  public GraphDatabase exec(final Handler<AsyncResult<OrientGraph>> handler) {
-    manager.exec(getName(), adb -> graph(handler).handle(adb));
+  GraphDatabase exec(final boolean ordered,
+                     final boolean readOnly,
+                     final Handler<AsyncResult<OrientGraph>> handler,
+                     @Nullable final Handler<Void> releaseHandler)
+  {
+    manager.exec(handle, ordered, readOnly, graph(handler), releaseHandler);
     return this;
   }
+
+  @Override
+  protected void recover(final OrientGraph connection, final OConcurrentModificationException e) {
+    if (connection.getRawGraph().getTransaction().isActive()) {
+      connection.rollback();
+    }
+    connection.getRawGraph().getLocalCache().deleteRecord(e.getRid());
+  }
 }
@@ -0,0 +1,305 @@
+package org.cstamas.vertx.orientdb.impl;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.Nullable;
+
+import com.orientechnologies.orient.core.db.OPartitionedDatabasePool;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.db.record.ORecordOperation;
+import com.orientechnologies.orient.core.record.ORecord;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.OCommandSQL;
+import com.orientechnologies.orient.core.sql.query.OLiveQuery;
+import com.orientechnologies.orient.core.sql.query.OLiveResultListener;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.core.streams.ReadStream;
+import org.cstamas.vertx.orientdb.DatabaseOverloadedException;
+import org.cstamas.vertx.orientdb.LiveEvent;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link ReadStream} of live query events. The live query is subscribed when data handler is set, and unsubscribed
+ * when data handler is set to {@code null}, or when the database handle is closed, that ends the stream. OrientDB
+ * invokes the listener on it's own thread, that is never blocked: events are handed over to the context of creator,
+ * and are buffered there while stream is paused. If buffer fills up, the stream fails with {@link
+ * DatabaseOverloadedException} and the live query is unsubscribed.
+ * <p>
+ * Subscription lives on the server it was made on, hence the pool of subscribing connection is kept, and unsubscribe
+ * is executed on it, always by a worker.
+ * <p>
+ * Apart from the subscription pool and token, and the closing and unsubscribe flags, the state is accessed only on
+ * the context of creator.
+ */
+class LiveQueryStream
+    implements ReadStream<LiveEvent>, OLiveResultListener
+{
+  private static final Logger log = LoggerFactory.getLogger(LiveQueryStream.class);
+
+  static final int BUFFER_SIZE = 1024;
+
+  private final DocumentDatabaseImpl database;
+
+  private final DatabaseHandle handle;
+
+  private final Context context;
+
+  private final String sql;
+
+  @Nullable
+  private final Map<String, Object> params;
+
+  private final ArrayDeque<LiveEvent> buffer;
+
+  private final AtomicBoolean unsubscribed;
+
+  private volatile OPartitionedDatabasePool pool;
+
+  private volatile Integer token;
+
+  private volatile boolean closing;
+
+  private Handler<LiveEvent> handler;
+
+  private Handler<Void> endHandler;
+
+  private Handler<Throwable> exceptionHandler;
+
+  private boolean started;
+
+  private boolean paused;
+
+  private boolean cancelled;
+
+  private boolean ending;
+
+  private boolean done;
+
+  LiveQueryStream(final DocumentDatabaseImpl database,
+                  final DatabaseHandle handle,
+                  final Context context,
+                  final String sql,
+                  @Nullable final Map<String, Object> params)
+  {
+    this.database = requireNonNull(database);
+    this.handle = requireNonNull(handle);
+    this.context = requireNonNull(context);
+    this.sql = sql.trim().toLowerCase(Locale.ENGLISH).startsWith("live ") ? sql : "live " + sql;
+    this.params = params;
+    this.buffer = new ArrayDeque<>();
+    this.unsubscribed = new AtomicBoolean(false);
+  }
+
+  // Consumer
+
+  @Override
+  public LiveQueryStream exceptionHandler(final Handler<Throwable> handler) {
+    this.exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public LiveQueryStream handler(final Handler<LiveEvent> handler) {
+    this.handler = handler;
+    if (handler == null) {
+      if (started && !cancelled) {
+        cancelled = true;
+        buffer.clear();
+        unsubscribe();
+      }
+    }
+    else if (!started) {
+      started = true;
+      subscribe();
+    }
+    else {
+      drain();
+    }
+    return this;
+  }
+
+  @Override
+  public LiveQueryStream pause() {
+    paused = true;
+    return this;
+  }
+
+  @Override
+  public LiveQueryStream resume() {
+    paused = false;
+    drain();
+    return this;
+  }
+
+  @Override
+  public LiveQueryStream endHandler(final Handler<Void> endHandler) {
+    this.endHandler = endHandler;
+    return this;
+  }
+
+  // Listener, invoked by OrientDB
+
+  @Override
+  public void onLiveResult(final int liveToken, final ORecordOperation operation) {
+    LiveEvent.Type type;
+    switch (operation.type) {
+      case ORecordOperation.CREATED:
+        type = LiveEvent.Type.CREATED;
+        break;
+      case ORecordOperation.UPDATED:
+        type = LiveEvent.Type.UPDATED;
+        break;
+      case ORecordOperation.DELETED:
+        type = LiveEvent.Type.DELETED;
+        break;
+      default:
+        return;
+    }
+    ORecord record = operation.getRecord();
+    if (record instanceof ODocument) {
+      LiveEvent event = new LiveEvent(type, ((ODocument) record).copy());
+      context.runOnContext(v -> deliver(event));
+    }
+  }
+
+  @Override
+  public void onError(final int liveToken) {
+    context.runOnContext(v -> fail(new IllegalStateException("Live query failed: " + sql)));
+  }
+
+  @Override
+  public void onUnsubscribe(final int liveToken) {
+    context.runOnContext(v -> end());
+  }
+
+  // Lifecycle
+
+  /**
+   * Unsubscribes the live query and ends the stream. Invoked by database handle being closed, before it's last
+   * reference is released.
+   */
+  void close() {
+    closing = true;
+    unsubscribe();
+    context.runOnContext(v -> end());
+  }
+
+  private void subscribe() {
+    handle.liveQueries.add(this);
+    // ordered, so ordered operations issued afterwards on same context are executed once subscribed
+    database.call(true, db -> {
+      OLiveQuery<ODocument> query = new OLiveQuery<>(sql, this);
+      List<ODocument> result = params == null ? db.query(query) : db.query(query, params);
+      pool = handle.pool(db);
+      Integer subscribedToken = result.get(0).field("token");
+      token = subscribedToken;
+      // handle closed meanwhile, and close did not see the token
+      if (closing && unsubscribed.compareAndSet(false, true)) {
+        unsubscribe(db, subscribedToken);
+      }
+      return subscribedToken;
+    }, subscribed -> {
+      if (subscribed.failed()) {
+        fail(subscribed.cause());
+      }
+      else if (cancelled) {
+        unsubscribe();
+      }
+    });
+  }
+
+  private void unsubscribe() {
+    handle.liveQueries.remove(this);
+    Integer current = token;
+    if (current == null || !unsubscribed.compareAndSet(false, true)) {
+      return;
+    }
+    if (!handle.retain()) {
+      // handle disposed, subscription was dropped with it's pool
+      return;
+    }
+    OPartitionedDatabasePool subscribedPool = pool;
+    try {
+      handle.executor(false).<Void>executeBlocking(
+          f -> {
+            try (ODatabaseDocumentTx db = subscribedPool.acquire()) {
+              unsubscribe(db, current);
+              f.complete();
+            }
+            finally {
+              handle.release();
+            }
+          },
+          false,
+          ar -> {
+            if (ar.failed()) {
+              log.debug("Could not unsubscribe live query " + sql, ar.cause());
+            }
+          }
+      );
+    }
+    catch (IllegalStateException e) {
+      // executor closed
+      handle.release();
+      log.debug("Could not unsubscribe live query " + sql, e);
+    }
+  }
+
+  private static void unsubscribe(final ODatabaseDocumentTx db, final int token) {
+    db.command(new OCommandSQL("live unsubscribe " + token)).execute();
+  }
+
+  private void deliver(final LiveEvent event) {
+    if (cancelled || ending) {
+      return;
+    }
+    if (buffer.size() >= BUFFER_SIZE) {
+      fail(new DatabaseOverloadedException(handle.name, "Live query events not consumed: " + sql));
+      unsubscribe();
+      return;
+    }
+    buffer.add(event);
+    drain();
+  }
+
+  private void end() {
+    ending = true;
+    drain();
+  }
+
+  private void fail(final Throwable cause) {
+    if (cancelled || done) {
+      return;
+    }
+    cancelled = true;
+    buffer.clear();
+    handle.liveQueries.remove(this);
+    if (exceptionHandler != null) {
+      exceptionHandler.handle(cause);
+    }
+    else {
+      log.warn("Live query failed " + sql, cause);
+    }
+  }
+
+  private void drain() {
+    while (!paused && !cancelled && handler != null && !buffer.isEmpty()) {
+      handler.handle(buffer.poll());
+    }
+    if (ending && !done && !cancelled && buffer.isEmpty()) {
+      done = true;
+      handle.liveQueries.remove(this);
+      if (endHandler != null) {
+        endHandler.handle(null);
+      }
+    }
+  }
+}
@@ -5,26 +5,45 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
 
 import com.orientechnologies.orient.core.OConstants;
 import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.db.ODatabase.ATTRIBUTES;
+import com.orientechnologies.orient.core.db.ODatabaseLifecycleListener;
 import com.orientechnologies.orient.core.db.OPartitionedDatabasePool;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
 import com.orientechnologies.orient.server.OServer;
 import com.orientechnologies.orient.server.config.OServerConfiguration;
 import com.tinkerpop.blueprints.impls.orient.OrientGraphNoTx;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import org.cstamas.vertx.orientdb.ConnectionOptions;
+import org.cstamas.vertx.orientdb.DatabaseMetrics;
 import org.cstamas.vertx.orientdb.DocumentDatabase;
 import org.cstamas.vertx.orientdb.GraphDatabase;
 import org.cstamas.vertx.orientdb.Manager;
 import org.cstamas.vertx.orientdb.ManagerOptions;
+import org.cstamas.vertx.orientdb.ODocumentCodec;
+import org.cstamas.vertx.orientdb.OrientUtils;
+import org.cstamas.vertx.orientdb.StartupTiming;
 
 import static java.util.Objects.requireNonNull;
 
@@ -34,33 +53,34 @@ import static java.util.Objects.requireNonNull;
 public class ManagerImpl
     implements Manager
 {
-  private class DatabaseInfo
-  {
-    private final OPartitionedDatabasePool databasePool;
-
-    DatabaseInfo(final OPartitionedDatabasePool databasePool)
-    {
-      this.databasePool = databasePool;
-    }
-
-    void close() {
-      databasePool.close();
-    }
-  }
-
   private static final String PLOCAL_PREFIX = "plocal:";
 
   private static final String REMOTE_PREFIX = "remote:";
 
   private static final String MEMORY_PREFIX = "memory:";
 
+  private static final String WORKER_EXECUTOR_PREFIX = "orientdb-";
+
+  private static final String READ_WORKER_EXECUTOR_SUFFIX = "-read";
+
   private static final Logger log = LoggerFactory.getLogger(ManagerImpl.class);
 
   private final Vertx vertx;
 
   private final ManagerOptions managerOptions;
 
-  private final HashMap<String, DatabaseInfo> databaseInfos;
+  private final DatabaseMetrics databaseMetrics;
+
+  private final ConcurrentHashMap<String, DatabaseHandle> databaseHandles;
+
+  private final Set<String> creating;
+
+  private final ConcurrentHashMap<String, StartupTiming> startupTimings;
+
+  private final Map<String, Long> startupPhases;
+
+  @Nullable
+  private volatile Future<Void> serverActivation;
 
   private Path orientHome;
 
@@ -68,13 +88,23 @@ public class ManagerImpl
 
   private Path orientServerConfig;
 
-  private OServer orientServer;
+  private volatile OServer orientServer;
 
   public ManagerImpl(final Vertx vertx, final ManagerOptions managerOptions)
+  {
+    this(vertx, managerOptions, DatabaseMetrics.noop());
+  }
+
+  public ManagerImpl(final Vertx vertx, final ManagerOptions managerOptions, final DatabaseMetrics databaseMetrics)
   {
     this.vertx = requireNonNull(vertx);
     this.managerOptions = requireNonNull(managerOptions);
-    this.databaseInfos = new HashMap<>();
+    this.databaseMetrics = requireNonNull(databaseMetrics);
+    this.databaseHandles = new ConcurrentHashMap<>();
+    this.creating = ConcurrentHashMap.newKeySet();
+    this.startupTimings = new ConcurrentHashMap<>();
+    this.startupPhases = new LinkedHashMap<>();
+    ODocumentCodec.register(vertx.eventBus());
   }
 
   private <T> void executeBlocking(Handler<Future<T>> blockingCodeHandler, Handler<AsyncResult<T>> resultHandler) {
@@ -83,27 +113,131 @@ public class ManagerImpl
 
   @Override
   public Manager open(final Handler<AsyncResult<Void>> handler) {
-    executeBlocking(
+    return open(handler, activated -> {});
+  }
+
+  @Override
+  public Manager open(final Handler<AsyncResult<Void>> handler, final Handler<AsyncResult<Void>> serverHandler) {
+    boolean deferred = managerOptions.isServerEnabled() && managerOptions.isDeferServerActivation();
+    this.<Void>executeBlocking(
         f -> {
           try {
-            open();
+            open(!deferred);
             f.complete();
           }
           catch (Exception e) {
             f.fail(e);
           }
         },
-        handler
+        opened -> {
+          if (opened.failed()) {
+            serverHandler.handle(opened);
+            handler.handle(opened);
+          }
+          else if (deferred) {
+            Future<Void> activation = Future.future();
+            serverActivation = activation;
+            vertx.<Void>executeBlocking(
+                f -> {
+                  try {
+                    openServer();
+                    f.complete();
+                  }
+                  catch (Exception e) {
+                    log.error("Could not activate server", e);
+                    f.fail(e);
+                  }
+                },
+                false,
+                activated -> {
+                  log.info("OrientDB Server activated " + startupTiming().toJson().encode());
+                  activation.handle(activated);
+                  serverHandler.handle(activated);
+                }
+            );
+            openDatabases(handler);
+          }
+          else {
+            serverHandler.handle(opened);
+            openDatabases(handler);
+          }
+        }
     );
     return this;
   }
 
+  /**
+   * Opens declared databases, keeping at most startup concurrency of them being opened at a time.
+   */
+  private void openDatabases(final Handler<AsyncResult<Void>> handler) {
+    List<ManagerOptions.DatabaseDeclaration> databases = managerOptions.getDatabases();
+    List<Future> opened = new ArrayList<>(databases.size());
+    databases.forEach(d -> opened.add(Future.<Void>future()));
+    AtomicInteger next = new AtomicInteger(0);
+    long start = System.nanoTime();
+    for (int i = 0; i < Math.min(managerOptions.getStartupConcurrency(), databases.size()); i++) {
+      openDatabase(databases, opened, next);
+    }
+    CompositeFuture.join(opened).setHandler(joined -> {
+      phase(startupPhases, "databases", start);
+      log.info("OrientDB manager opened " + startupTiming().toJson().encode());
+      if (joined.failed()) {
+        handler.handle(Future.failedFuture(joined.cause()));
+      }
+      else {
+        handler.handle(Future.succeededFuture());
+      }
+    });
+  }
+
+  @SuppressWarnings("unchecked")
+  private void openDatabase(final List<ManagerOptions.DatabaseDeclaration> databases,
+                            final List<Future> opened,
+                            final AtomicInteger next)
+  {
+    int index = next.getAndIncrement();
+    if (index >= databases.size()) {
+      return;
+    }
+    ManagerOptions.DatabaseDeclaration database = databases.get(index);
+    Future<Void> future = opened.get(index);
+    try {
+      create(database.connectionOptions().apply(this), database.handler(), created -> {
+        future.handle(created);
+        openDatabase(databases, opened, next);
+      });
+    }
+    catch (Exception e) {
+      future.fail(e);
+      openDatabase(databases, opened, next);
+    }
+  }
+
   @Override
   public void close(final Handler<AsyncResult<Void>> handler) {
-    executeBlocking(
+    Future<Void> activation = serverActivation;
+    if (activation != null && !activation.isComplete()) {
+      // wait for deferred server activation, as server is closed too
+      activation.setHandler(activated -> close(handler));
+      return;
+    }
+    // drain and close databases first
+    List<Future> closed = new ArrayList<>();
+    for (String name : new ArrayList<>(databaseHandles.keySet())) {
+      DatabaseHandle handle = databaseHandles.remove(name);
+      if (handle != null) {
+        Future<Void> future = Future.future();
+        handle.close(future.completer());
+        closed.add(future);
+      }
+    }
+    CompositeFuture.join(closed).setHandler(drained -> executeBlocking(
         f -> {
           try {
-            if (managerOptions.isServerEnabled()) {
+            if (drained.failed()) {
+              log.warn("Database close failure", drained.cause());
+            }
+            if (orientServer != null) {
               closeServer();
               log.info("OrientDB Server shutdown");
             }
@@ -116,7 +250,7 @@ public class ManagerImpl
           }
         },
         handler
-    );
+    ));
   }
 
   private void closeServer() {
@@ -126,11 +260,6 @@ public class ManagerImpl
   }
 
   private void closeManager() {
-    synchronized (databaseInfos) {
-      databaseInfos.values().forEach(DatabaseInfo::close);
-      databaseInfos.clear();
-    }
-
     // global shutdown
     Orient.instance().shutdown();
   }
@@ -149,6 +278,21 @@ public class ManagerImpl
     );
   }
 
+  @Override
+  public ConnectionOptions.Builder remoteConnection(final String name,
+                                                    final List<String> hostnames,
+                                                    final String remoteName)
+  {
+    if (hostnames.isEmpty()) {
+      throw new IllegalArgumentException("Remote: No hosts given for " + name);
+    }
+    ConnectionOptions.Builder builder = remoteConnection(name, hostnames.get(0), remoteName);
+    for (String hostname : hostnames.subList(1, hostnames.size())) {
+      builder.addServerUri(REMOTE_PREFIX + hostname + '/' + remoteName);
+    }
+    return builder;
+  }
+
   @Override
   public ConnectionOptions.Builder memoryConnection(final String name) {
     return new ConnectionOptions.Builder(
@@ -171,12 +315,12 @@ public class ManagerImpl
     executeBlocking(
         f -> {
           try {
-            DatabaseInfo databaseInfo = databaseInfos.get(name);
-            if (databaseInfo == null) {
+            DatabaseHandle handle = databaseHandles.get(name);
+            if (handle == null) {
               f.fail(new IllegalArgumentException("Doc: Non existent database:" + name));
             }
             else {
-              f.complete(new DocumentDatabaseImpl(name, this));
+              f.complete(new DocumentDatabaseImpl(handle, this));
             }
           }
           catch (Exception e) {
@@ -207,12 +351,12 @@ public class ManagerImpl
     executeBlocking(
         f -> {
           try {
-            DatabaseInfo databaseInfo = databaseInfos.get(name);
-            if (databaseInfo == null) {
+            DatabaseHandle handle = databaseHandles.get(name);
+            if (handle == null) {
               f.fail(new IllegalArgumentException("Graph: Non existent database:" + name));
             }
             else {
-              f.complete(new GraphDatabaseImpl(name, this));
+              f.complete(new GraphDatabaseImpl(handle, this));
             }
           }
           catch (Exception e) {
@@ -224,11 +368,24 @@ public class ManagerImpl
     return this;
   }
 
-  private void open() throws Exception {
+  @Nullable
+  @Override
+  public StartupTiming startupTiming(final String name) {
+    return startupTimings.get(name);
+  }
+
+  @Override
+  public StartupTiming startupTiming() {
+    synchronized (startupPhases) {
+      return new StartupTiming("manager", startupPhases);
+    }
+  }
+
+  private void open(final boolean withServer) throws Exception {
     try {
       log.info("OrientDB " + OConstants.getVersion() + " manager started");
       openManager();
-      if (managerOptions.isServerEnabled()) {
+      if (managerOptions.isServerEnabled() && withServer) {
         openServer();
       }
     }
@@ -249,12 +406,16 @@ public class ManagerImpl
       this.databasesDir = orientHome.resolve("databases");
     }
     // global startup
+    long start = System.nanoTime();
     Orient.instance().startup();
     Orient.instance().removeShutdownHook();
+    phase(startupPhases, "orient", start);
   }
 
   private void openServer() throws Exception {
+    long mark = System.nanoTime();
     configureServer();
+    mark = phase(startupPhases, "serverConfig", mark);
 
     // documentInstance startup
     OServer server = new OServer();
@@ -263,10 +424,12 @@ public class ManagerImpl
     server.startup(orientServerConfig.toFile());
 
     server.removeShutdownHook();
+    mark = phase(startupPhases, "serverStartup", mark);
 
     // Orient.documentInstance().addDbLifecycleListener(entityHook);
 
     server.activate();
+    phase(startupPhases, "serverActivate", mark);
 
     this.orientServer = server;
   }
@@ -304,110 +467,349 @@ public class ManagerImpl
     }
   }
 
+  /**
+   * Creates database, concurrently with others: the name is reserved up front, so no lock is held while database is
+   * opened, initialized and warmed up.
+   */
   private void create(final ConnectionOptions connectionOptions,
                       final Handler<ODatabaseDocumentTx> handler,
                       final Handler<AsyncResult<Void>> resultHandler)
   {
-    executeBlocking(
+    vertx.executeBlocking(
         f -> {
+          String name = connectionOptions.name();
+          if (!creating.add(name)) {
+            f.fail(new IllegalArgumentException("Create: Database is being created: " + name));
+            return;
+          }
+          ODatabaseLifecycleListener resultCacheListener = null;
+          OPartitionedDatabasePool pool = null;
+          ServerNodes serverNodes = null;
+          List<OPartitionedDatabasePool> readPools = new ArrayList<>();
+          WorkerExecutor workerExecutor = null;
+          WorkerExecutor readWorkerExecutor = null;
           try {
-            synchronized (databaseInfos) {
-              final String uri = connectionOptions.uri();
-              if (!uri.startsWith(REMOTE_PREFIX)) {
-                try (ODatabaseDocumentTx db = new ODatabaseDocumentTx(uri)) {
-                  if (db.exists()) {
-                    db.open(connectionOptions.username(), connectionOptions.password());
-                    log.debug("Opened existing " + connectionOptions.name() + " -> " + uri);
-                  }
-                  else {
-                    db.create();
-                    log.debug("Created new " + connectionOptions.name() + " -> " + uri);
-                  }
-                  try {
-                    handler.handle(db);
-                  }
-                  catch (Exception e) {
-                    log.warn("Creation/Open handler failure", e);
-                  }
+            if (databaseHandles.containsKey(name)) {
+              throw new IllegalArgumentException("Create: Database already exists: " + name);
+            }
+            Map<String, Long> phases = new LinkedHashMap<>();
+            long mark = System.nanoTime();
+            final String uri = connectionOptions.uri();
+            if (!uri.startsWith(REMOTE_PREFIX)) {
+              try (ODatabaseDocumentTx db = new ODatabaseDocumentTx(uri)) {
+                if (db.exists()) {
+                  db.open(connectionOptions.username(), connectionOptions.password());
+                  log.debug("Opened existing " + connectionOptions.name() + " -> " + uri);
+                }
+                else {
+                  db.create();
+                  log.debug("Created new " + connectionOptions.name() + " -> " + uri);
+                }
+                if (connectionOptions.minimumClusters() > 0) {
+                  db.set(ATTRIBUTES.MINIMUMCLUSTERS, connectionOptions.minimumClusters());
+                }
+                mark = phase(phases, "open", mark);
+                try {
+                  handler.handle(db);
+                }
+                catch (Exception e) {
+                  log.warn("Creation/Open handler failure", e);
                 }
               }
-              OPartitionedDatabasePool pool = new OPartitionedDatabasePool(
-                  uri,
-                  connectionOptions.username(),
-                  connectionOptions.password(),
-                  connectionOptions.maxPartitionSize(),
-                  connectionOptions.maxPoolSize()
-              );
-              if (uri.startsWith(REMOTE_PREFIX)) {
+              mark = phase(phases, "init", mark);
+            }
+            ResultCache resultCache = new ResultCache(
+                connectionOptions.resultCacheSize(),
+                connectionOptions.resultCacheTtl()
+            );
+            if (resultCache.isEnabled()) {
+              // registers invalidating hook on every connection of the pool
+              resultCacheListener = new ResultCacheHook(uri, resultCache).lifecycleListener();
+              Orient.instance().addDbLifecycleListener(resultCacheListener);
+            }
+            pool = new OPartitionedDatabasePool(
+                uri,
+                connectionOptions.username(),
+                connectionOptions.password(),
+                connectionOptions.maxPartitionSize(),
+                connectionOptions.maxPoolSize()
+            );
+            if (!connectionOptions.serverUris().isEmpty()) {
+              serverNodes = new ServerNodes(vertx, pool, connectionOptions);
+            }
+            if (uri.startsWith(REMOTE_PREFIX)) {
+              mark = phase(phases, "pools", mark);
+              if (serverNodes != null) {
+                ServerNodes.Lease lease = serverNodes.acquire();
+                try (ODatabaseDocumentTx db = lease.db) {
+                  handler.handle(db);
+                }
+                finally {
+                  lease.release();
+                }
+              }
+              else {
                 try (ODatabaseDocumentTx db = pool.acquire()) {
                   handler.handle(db);
                 }
               }
-              DatabaseInfo info = new DatabaseInfo(pool);
-              databaseInfos.put(connectionOptions.name(), info);
-              f.complete();
+              mark = phase(phases, "init", mark);
+            }
+            workerExecutor = createWorkerExecutor(
+                WORKER_EXECUTOR_PREFIX + connectionOptions.name(),
+                connectionOptions.workerPoolSize()
+            );
+            readWorkerExecutor = workerExecutor;
+            if (connectionOptions.isReadSplit()) {
+              List<String> readUris = connectionOptions.readUris().isEmpty() ?
+                  Collections.singletonList(uri) : connectionOptions.readUris();
+              for (String readUri : readUris) {
+                readPools.add(new OPartitionedDatabasePool(
+                    readUri,
+                    connectionOptions.username(),
+                    connectionOptions.password(),
+                    connectionOptions.readMaxPartitionSize(),
+                    connectionOptions.readMaxPoolSize()
+                ));
+              }
+              readWorkerExecutor = createWorkerExecutor(
+                  WORKER_EXECUTOR_PREFIX + connectionOptions.name() + READ_WORKER_EXECUTOR_SUFFIX,
+                  Math.min(connectionOptions.workerPoolSize(), connectionOptions.readMaxPoolSize() * readPools.size())
+              );
+            }
+            DatabaseHandle handle = new DatabaseHandle(
+                vertx,
+                name,
+                pool,
+                serverNodes,
+                workerExecutor,
+                readPools,
+                readWorkerExecutor,
+                new AdmissionQueue(vertx, connectionOptions),
+                new StatementInspection(connectionOptions.statementInspectionSize()),
+                resultCache,
+                resultCacheListener,
+                attempts -> databaseMetrics.attempts(name, attempts)
+            );
+            phase(phases, "pools", mark);
+            if (connectionOptions.isWarmUp()) {
+              // registered only once warm
+              long warmUp = new WarmUp(handle, connectionOptions).run();
+              databaseMetrics.warmUp(name, warmUp);
+              phases.put("warmUp", warmUp);
             }
+            if (serverNodes != null) {
+              serverNodes.start();
+            }
+            databaseHandles.put(name, handle);
+            StartupTiming startupTiming = new StartupTiming(name, phases);
+            startupTimings.put(name, startupTiming);
+            log.info("Started " + name + " " + startupTiming.toJson().encode());
+            f.complete();
           }
           catch (Exception e) {
+            // database is not registered, release what was created for it
+            try {
+              if (resultCacheListener != null) {
+                Orient.instance().removeDbLifecycleListener(resultCacheListener);
+              }
+              if (workerExecutor != null) {
+                workerExecutor.close();
+              }
+              if (readWorkerExecutor != null && readWorkerExecutor != workerExecutor) {
+                readWorkerExecutor.close();
+              }
+              if (serverNodes != null) {
+                serverNodes.close();
+              }
+              if (pool != null) {
+                pool.close();
+              }
+              readPools.forEach(OPartitionedDatabasePool::close);
+            }
+            catch (Exception suppressed) {
+              e.addSuppressed(suppressed);
+            }
             f.fail(e);
           }
+          finally {
+            creating.remove(name);
+          }
         },
+        false,
         resultHandler
     );
   }
 
-  void exec(final String name, final Handler<AsyncResult<ODatabaseDocumentTx>> handler) {
-    Handler<Future<Void>> exec = f -> {
-      try {
-        DatabaseInfo databaseInfo = databaseInfos.get(name);
-        if (databaseInfo == null) {
-          IllegalArgumentException iaex = new IllegalArgumentException("Exec: Non existent database: " + name);
-          handler.handle(Future.failedFuture(iaex));
-          f.fail(iaex);
-        }
-        else {
-          OPartitionedDatabasePool pool = databaseInfo.databasePool;
-          try (ODatabaseDocumentTx db = pool.acquire()) {
-            handler.handle(Future.succeededFuture(db));
-          }
-          f.complete();
-        }
-      }
-      catch (Exception e) {
-        handler.handle(Future.failedFuture(e));
-        f.fail(e);
-      }
-    };
+  /**
+   * Creates shared worker executor of a database. Vert.x closes executors created from a verticle when it is
+   * undeployed, but database may be created from a verticle, and workers must outlive it. Hence, executor is created
+   * from a thread not belonging to Vert.x, so it is not bound to any verticle, and is closed when database is closed.
+   */
+  private WorkerExecutor createWorkerExecutor(final String name, final int poolSize) {
+    return CompletableFuture.supplyAsync(() -> vertx.createSharedWorkerExecutor(name, poolSize)).join();
+  }
 
-    if (managerOptions.isUseEventLoop()) {
-      exec.handle(Future.future());
-    }
-    else {
-      vertx.getOrCreateContext().executeBlocking(exec, v -> {});
+  /**
+   * Adds nanoseconds elapsed since {@code mark} to the phase, and returns new mark.
+   */
+  private static long phase(final Map<String, Long> phases, final String phase, final long mark) {
+    long now = System.nanoTime();
+    synchronized (phases) {
+      phases.merge(phase, now - mark, Long::sum);
     }
+    return now;
   }
 
-  void close(final String name, final Handler<AsyncResult<Void>> handler) {
-    executeBlocking(
-        f -> {
-          try {
-            synchronized (databaseInfos) {
-              DatabaseInfo databaseInfo = databaseInfos.get(name);
-              if (databaseInfo == null) {
-                f.fail(new IllegalArgumentException("Close: Non existent database: " + name));
+  Vertx getVertx() {
+    return vertx;
+  }
+
+  boolean isOrderedExec() {
+    return managerOptions.isOrderedExec();
+  }
+
+  boolean isUseEventLoop() {
+    return managerOptions.isUseEventLoop();
+  }
+
+  /**
+   * Executes handler with pooled connection, taken from read pool if {@code readOnly}, or from least loaded server
+   * node if there are server nodes and not {@code readOnly}. The optional {@code releaseHandler} is invoked after the
+   * handler, once the connection is returned to pool, or the operation is failed without acquiring it.
+   */
+  void exec(final DatabaseHandle handle,
+            final boolean ordered,
+            final boolean readOnly,
+            final Handler<AsyncResult<ODatabaseDocumentTx>> handler,
+            @Nullable final Handler<Void> releaseHandler)
+  {
+    if (!handle.retain()) {
+      handler.handle(Future.failedFuture(new IllegalStateException("Exec: Closed database: " + handle.name)));
+      released(releaseHandler);
+      return;
+    }
+
+    if (managerOptions.isUseEventLoop()) {
+      exec(handle, readOnly, handler);
+      handle.release();
+      released(releaseHandler);
+    }
+    else {
+      AdmissionQueue admissionQueue = handle.admissionQueue;
+      Context context = vertx.getOrCreateContext();
+      long submitted = System.nanoTime();
+      admissionQueue.submit(new AdmissionQueue.Ticket(
+          context,
+          ticket -> {
+            Runnable task = () -> {
+              if (admissionQueue.start(ticket)) {
+                databaseMetrics.queueWait(handle.name, System.nanoTime() - submitted);
+                try {
+                  exec(handle, readOnly, handler);
+                }
+                finally {
+                  handle.release();
+                  released(releaseHandler);
+                }
               }
-              else {
-                databaseInfo.close();
-                databaseInfos.remove(name);
-                f.complete();
+            };
+            Handler<IllegalStateException> rejected = e -> {
+              // executor closed
+              admissionQueue.abort(ticket);
+              handle.release();
+              handler.handle(Future.failedFuture(e));
+              released(releaseHandler);
+            };
+            if (ordered) {
+              // not ordered by executor, as ordered tasks of context would be shared with other databases
+              handle.orderedTasks.execute(context, handle.executor(readOnly), task, rejected);
+            }
+            else {
+              try {
+                handle.executor(readOnly).<Void>executeBlocking(
+                    f -> {
+                      try {
+                        task.run();
+                      }
+                      finally {
+                        f.complete();
+                      }
+                    },
+                    false,
+                    v -> {}
+                );
+              }
+              catch (IllegalStateException e) {
+                rejected.handle(e);
               }
             }
+          },
+          e -> {
+            handle.release();
+            handler.handle(Future.failedFuture(e));
+            released(releaseHandler);
           }
-          catch (Exception e) {
-            f.fail(e);
-          }
-        },
-        handler
-    );
+      ));
+    }
+  }
+
+  private static void released(@Nullable final Handler<Void> releaseHandler) {
+    if (releaseHandler != null) {
+      releaseHandler.handle(null);
+    }
+  }
+
+  private void exec(final DatabaseHandle handle,
+                    final boolean readOnly,
+                    final Handler<AsyncResult<ODatabaseDocumentTx>> handler)
+  {
+    String name = handle.name;
+    databaseMetrics.started(name);
+    boolean success = false;
+    ServerNodes.Lease lease = null;
+    try {
+      long start = System.nanoTime();
+      if (handle.serverNodes != null && (!readOnly || handle.readPools.isEmpty())) {
+        // reads go to read pools, if any
+        lease = handle.serverNodes.acquire();
+      }
+      try (ODatabaseDocumentTx db = lease != null ? lease.db : handle.pool(readOnly).acquire()) {
+        long acquired = System.nanoTime();
+        databaseMetrics.acquire(name, acquired - start);
+        db.setProperty(OrientUtils.ATTEMPTS_LISTENER_PROPERTY, handle.attemptsListener);
+        try {
+          handler.handle(Future.succeededFuture(db));
+          success = true;
+        }
+        finally {
+          db.setProperty(OrientUtils.ATTEMPTS_LISTENER_PROPERTY, null);
+          databaseMetrics.execute(name, System.nanoTime() - acquired);
+        }
+      }
+    }
+    catch (Exception e) {
+      success = false;
+      if (lease != null) {
+        handle.serverNodes.failed(lease, e);
+      }
+      handler.handle(Future.failedFuture(e));
+    }
+    finally {
+      if (lease != null) {
+        lease.release();
+      }
+      databaseMetrics.finished(name, success);
+    }
+  }
+
+  void close(final DatabaseHandle handle, final Handler<AsyncResult<Void>> handler) {
+    if (databaseHandles.remove(handle.name, handle)) {
+      handle.close(handler);
+    }
+    else {
+      vertx.runOnContext(v -> handler.handle(Future.failedFuture(
+          new IllegalStateException("Close: Closed database: " + handle.name))));
+    }
   }
 }
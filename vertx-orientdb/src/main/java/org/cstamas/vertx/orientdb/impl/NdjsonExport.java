@@ -0,0 +1,167 @@
+package org.cstamas.vertx.orientdb.impl;
+
+import java.util.Arrays;
+
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.iterator.ORecordIteratorCluster;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
+import org.cstamas.vertx.orientdb.DocumentDatabase;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Export of documents as NDJSON into a {@link WriteStream}. A class is exported in chunks: each chunk iterates the
+ * clusters of class on a pooled connection from the position where previous chunk stopped, and is written to target
+ * on the context of caller after the connection and worker are released. The next chunk is read once the target
+ * write queue is not full, so memory use stays bounded by the size of chunk.
+ * <p>
+ * Documents are written without {@code @rid} and {@code @version}, so the output can be imported with {@link
+ * DocumentDatabase#importJson(String, ReadStream, org.cstamas.vertx.orientdb.ImportOptions, Handler, Handler)}.
+ */
+class NdjsonExport
+{
+  static final int CHUNK_SIZE = 1000;
+
+  private static final String JSON_FORMAT = "class,keepTypes,alwaysFetchEmbedded";
+
+  private static final byte NEWLINE = '\n';
+
+  private static final class Chunk
+  {
+    private final Buffer buffer;
+
+    private final int documents;
+
+    private final boolean last;
+
+    Chunk(final Buffer buffer, final int documents, final boolean last) {
+      this.buffer = buffer;
+      this.documents = documents;
+      this.last = last;
+    }
+  }
+
+  private final DocumentDatabase documentDatabase;
+
+  private final String className;
+
+  private final WriteStream<Buffer> target;
+
+  private final Handler<AsyncResult<Long>> handler;
+
+  // cursor, accessed by one chunk at a time
+  private int[] clusterIds;
+
+  private int clusterIndex;
+
+  private long position;
+
+  private long exported;
+
+  NdjsonExport(final DocumentDatabase documentDatabase,
+               final String className,
+               final WriteStream<Buffer> target,
+               final Handler<AsyncResult<Long>> handler)
+  {
+    this.documentDatabase = requireNonNull(documentDatabase);
+    this.className = requireNonNull(className);
+    this.target = requireNonNull(target);
+    this.handler = requireNonNull(handler);
+  }
+
+  void start() {
+    next();
+  }
+
+  private void next() {
+    documentDatabase.callReadOnly(false, this::chunk, chunk -> {
+      if (chunk.failed()) {
+        handler.handle(Future.failedFuture(chunk.cause()));
+        return;
+      }
+      if (chunk.result().documents > 0) {
+        target.write(chunk.result().buffer);
+        exported += chunk.result().documents;
+      }
+      if (chunk.result().last) {
+        handler.handle(Future.succeededFuture(exported));
+      }
+      else if (target.writeQueueFull()) {
+        target.drainHandler(v -> {
+          target.drainHandler(null);
+          next();
+        });
+      }
+      else {
+        next();
+      }
+    });
+  }
+
+  private Chunk chunk(final ODatabaseDocumentTx db) {
+    if (clusterIds == null) {
+      OClass clazz = db.getMetadata().getSchema().getClass(className);
+      if (clazz == null) {
+        throw new IllegalArgumentException("Export: Class not found: " + className);
+      }
+      clusterIds = clazz.getPolymorphicClusterIds().clone();
+      Arrays.sort(clusterIds);
+    }
+    Buffer buffer = Buffer.buffer();
+    int documents = 0;
+    while (clusterIndex < clusterIds.length && documents < CHUNK_SIZE) {
+      ORecordIteratorCluster<ODocument> iterator = new ORecordIteratorCluster<>(
+          db, db, clusterIds[clusterIndex], position, -1L);
+      while (iterator.hasNext() && documents < CHUNK_SIZE) {
+        ODocument document = iterator.next();
+        line(buffer, document);
+        position = document.getIdentity().getClusterPosition() + 1;
+        documents++;
+      }
+      if (documents < CHUNK_SIZE) {
+        // cluster exhausted
+        clusterIndex++;
+        position = 0L;
+      }
+    }
+    return new Chunk(buffer, documents, clusterIndex >= clusterIds.length);
+  }
+
+  /**
+   * Appends document as NDJSON line to buffer.
+   */
+  static Buffer line(final Buffer buffer, final ODocument document) {
+    return buffer.appendString(document.toJSON(JSON_FORMAT)).appendByte(NEWLINE);
+  }
+
+  /**
+   * Writes source of NDJSON lines into target, honoring target write queue, and invokes handler with the count of
+   * lines written once source ends.
+   */
+  static void pipe(final ReadStream<Buffer> source,
+                   final WriteStream<Buffer> target,
+                   final Handler<AsyncResult<Long>> handler)
+  {
+    long[] exported = new long[1];
+    source.exceptionHandler(e -> handler.handle(Future.failedFuture(e)));
+    source.endHandler(v -> handler.handle(Future.succeededFuture(exported[0])));
+    source.handler(line -> {
+      exported[0]++;
+      target.write(line);
+      if (target.writeQueueFull()) {
+        source.pause();
+        target.drainHandler(d -> {
+          target.drainHandler(null);
+          source.resume();
+        });
+      }
+    });
+  }
+}
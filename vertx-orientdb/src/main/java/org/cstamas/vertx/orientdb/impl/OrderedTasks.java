@@ -0,0 +1,167 @@
+package org.cstamas.vertx.orientdb.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.WorkerExecutor;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Ordered tasks of a database, queued per Vert.x context. Worker executors of Vert.x queue ordered tasks on the single
+ * ordered queue of context, shared by all executors, so ordered operations of one database would wait for the ones of
+ * another, and run on it's workers. Here, each database has it's own queue per context: a task is submitted unordered
+ * to it's executor once the previous task of same context is done, hence ordered read-only and read-write tasks are
+ * ordered with each other, while each is executed by it's own workers.
+ * <p>
+ * There is no shared lock: queues are lock-free, and a queue exists only while it has pending tasks. The task making
+ * it non-empty submits it, while the task leaving it empty retires it. A retired queue is never reused, a new one is
+ * created instead.
+ */
+class OrderedTasks
+{
+  private static final class Task
+  {
+    private final WorkerExecutor executor;
+
+    private final Runnable runnable;
+
+    private final Handler<IllegalStateException> rejected;
+
+    private Task(final WorkerExecutor executor,
+                 final Runnable runnable,
+                 final Handler<IllegalStateException> rejected)
+    {
+      this.executor = requireNonNull(executor);
+      this.runnable = requireNonNull(runnable);
+      this.rejected = requireNonNull(rejected);
+    }
+  }
+
+  private final class Queue
+  {
+    private final Context context;
+
+    private final ConcurrentLinkedQueue<Task> tasks;
+
+    /**
+     * Count of pending tasks (including the running one), or -1 if queue is retired.
+     */
+    private final AtomicInteger pending;
+
+    private Queue(final Context context) {
+      this.context = context;
+      this.tasks = new ConcurrentLinkedQueue<>();
+      this.pending = new AtomicInteger(0);
+    }
+
+    /**
+     * Adds task to queue, submitting it if queue was empty. Returns {@code false} if queue is retired.
+     */
+    private boolean add(final Task task) {
+      // added before counted, so task is there when count says so
+      tasks.add(task);
+      while (true) {
+        int count = pending.get();
+        if (count < 0) {
+          // no one polls retired queue
+          tasks.remove(task);
+          return false;
+        }
+        if (pending.compareAndSet(count, count + 1)) {
+          if (count == 0) {
+            submit(tasks.poll());
+          }
+          return true;
+        }
+      }
+    }
+
+    /**
+     * Submits tasks one by one, until one is accepted by it's executor, or queue is empty.
+     */
+    private void submit(final Task first) {
+      Task task = first;
+      while (task != null) {
+        Runnable runnable = task.runnable;
+        try {
+          task.executor.<Void>executeBlocking(
+              f -> {
+                try {
+                  runnable.run();
+                }
+                finally {
+                  f.complete();
+                  Task next = next();
+                  if (next != null) {
+                    submit(next);
+                  }
+                }
+              },
+              false,
+              v -> {}
+          );
+          return;
+        }
+        catch (IllegalStateException e) {
+          // executor closed
+          task.rejected.handle(e);
+          task = next();
+        }
+      }
+    }
+
+    /**
+     * Returns next task once current one is done, or retires the queue and returns {@code null} if queue is empty.
+     */
+    private Task next() {
+      if (pending.decrementAndGet() > 0) {
+        return tasks.poll();
+      }
+      if (pending.compareAndSet(0, -1)) {
+        queues.remove(context, this);
+      }
+      // else a task was added meanwhile, and it was submitted by adder
+      return null;
+    }
+  }
+
+  /**
+   * Queues of contexts having pending tasks.
+   */
+  private final ConcurrentHashMap<Context, Queue> queues;
+
+  OrderedTasks() {
+    this.queues = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Executes task after previous ones of context are done. The {@code rejected} handler is invoked instead of task,
+   * if executor was closed.
+   */
+  void execute(final Context context,
+               final WorkerExecutor executor,
+               final Runnable runnable,
+               final Handler<IllegalStateException> rejected)
+  {
+    Task task = new Task(executor, runnable, rejected);
+    while (true) {
+      Queue queue = queues.get(context);
+      if (queue == null) {
+        Queue created = new Queue(context);
+        queue = queues.putIfAbsent(context, created);
+        if (queue == null) {
+          queue = created;
+        }
+      }
+      if (queue.add(task)) {
+        return;
+      }
+      // retired meanwhile, it is being removed
+      queues.remove(context, queue);
+    }
+  }
+}
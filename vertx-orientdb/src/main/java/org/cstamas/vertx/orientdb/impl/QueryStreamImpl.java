@@ -0,0 +1,249 @@
+package org.cstamas.vertx.orientdb.impl;
+
+import java.util.ArrayDeque;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.streams.ReadStream;
+import org.cstamas.vertx.orientdb.DatabaseOverloadedException;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link ReadStream} fed by a producer running on worker thread, and consumed on the context of the creator. The
+ * items are buffered in a bounded buffer: when buffer is full (as consumer is slow or paused), the producer is
+ * blocked until consumer catches up. Hence, the memory used is bounded, no matter how many items are produced.
+ * <p>
+ * The producer must not run on the context thread, as only that thread drains the buffer. While blocked, the producer
+ * holds it's worker and pooled connection, so it is blocked at most for pause timeout: if consumer does not catch up
+ * meanwhile, the producer is told to stop, and the stream fails with {@link DatabaseOverloadedException} once the
+ * buffered items are consumed.
+ * <p>
+ * The producer is started when the data handler is set. Setting data handler to {@code null} cancels the
+ * stream: the producer is unblocked and told to stop.
+ */
+public class QueryStreamImpl<T>
+    implements ReadStream<T>
+{
+  static final int DEFAULT_BUFFER_SIZE = 128;
+
+  static final long DEFAULT_PAUSE_TIMEOUT = 30_000L;
+
+  private final Context context;
+
+  private final String name;
+
+  private final int bufferSize;
+
+  private final long pauseTimeout;
+
+  private final Handler<QueryStreamImpl<T>> producer;
+
+  private final ArrayDeque<T> buffer;
+
+  private Handler<T> handler;
+
+  private Handler<Void> endHandler;
+
+  private Handler<Throwable> exceptionHandler;
+
+  private boolean started;
+
+  private boolean paused;
+
+  private boolean cancelled;
+
+  private boolean ended;
+
+  private boolean drainScheduled;
+
+  private boolean done;
+
+  private Throwable failure;
+
+  public QueryStreamImpl(final Context context,
+                         final String name,
+                         final int bufferSize,
+                         final long pauseTimeout,
+                         final Handler<QueryStreamImpl<T>> producer)
+  {
+    if (bufferSize < 1) {
+      throw new IllegalArgumentException("Buffer size must be greater than zero: " + bufferSize);
+    }
+    if (pauseTimeout < 1) {
+      throw new IllegalArgumentException("Pause timeout must be greater than zero: " + pauseTimeout);
+    }
+    this.context = requireNonNull(context);
+    this.name = requireNonNull(name);
+    this.bufferSize = bufferSize;
+    this.pauseTimeout = pauseTimeout;
+    this.producer = requireNonNull(producer);
+    this.buffer = new ArrayDeque<>(bufferSize);
+  }
+
+  // Producer
+
+  /**
+   * Offers an item to stream, blocking if buffer is full, at most for pause timeout. Returns {@code false} if stream
+   * was cancelled or consumer did not catch up in time, and producer should stop.
+   */
+  public boolean offer(final T item) {
+    synchronized (this) {
+      long deadline = System.currentTimeMillis() + pauseTimeout;
+      while (buffer.size() >= bufferSize && !cancelled && !ended) {
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0L) {
+          // stream fails once buffered items are consumed
+          ended = true;
+          failure = new DatabaseOverloadedException(name, "stream paused longer than " + pauseTimeout + "ms");
+          break;
+        }
+        try {
+          wait(remaining);
+        }
+        catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          cancelled = true;
+        }
+      }
+      if (cancelled || ended) {
+        return false;
+      }
+      buffer.add(item);
+    }
+    scheduleDrain();
+    return true;
+  }
+
+  /**
+   * Ends the stream, with failure if {@code failure} is not {@code null}.
+   */
+  public void end(final Throwable failure) {
+    synchronized (this) {
+      if (ended) {
+        return;
+      }
+      this.ended = true;
+      this.failure = failure;
+    }
+    scheduleDrain();
+  }
+
+  /**
+   * Returns {@code true} if consumer cancelled the stream.
+   */
+  public synchronized boolean isCancelled() {
+    return cancelled;
+  }
+
+  // Consumer
+
+  @Override
+  public QueryStreamImpl<T> exceptionHandler(final Handler<Throwable> handler) {
+    synchronized (this) {
+      this.exceptionHandler = handler;
+    }
+    scheduleDrain();
+    return this;
+  }
+
+  @Override
+  public QueryStreamImpl<T> handler(final Handler<T> handler) {
+    boolean start = false;
+    synchronized (this) {
+      this.handler = handler;
+      if (handler == null) {
+        cancelled = true;
+        notifyAll();
+      }
+      else if (!started) {
+        started = true;
+        start = true;
+      }
+    }
+    if (start) {
+      producer.handle(this);
+    }
+    else {
+      scheduleDrain();
+    }
+    return this;
+  }
+
+  @Override
+  public QueryStreamImpl<T> pause() {
+    synchronized (this) {
+      paused = true;
+    }
+    return this;
+  }
+
+  @Override
+  public QueryStreamImpl<T> resume() {
+    synchronized (this) {
+      paused = false;
+    }
+    scheduleDrain();
+    return this;
+  }
+
+  @Override
+  public QueryStreamImpl<T> endHandler(final Handler<Void> endHandler) {
+    synchronized (this) {
+      this.endHandler = endHandler;
+    }
+    scheduleDrain();
+    return this;
+  }
+
+  private void scheduleDrain() {
+    synchronized (this) {
+      if (drainScheduled) {
+        return;
+      }
+      drainScheduled = true;
+    }
+    context.runOnContext(v -> drain());
+  }
+
+  private void drain() {
+    synchronized (this) {
+      drainScheduled = false;
+    }
+    while (true) {
+      T item;
+      Handler<T> h;
+      synchronized (this) {
+        if (paused || cancelled || handler == null || buffer.isEmpty()) {
+          break;
+        }
+        item = buffer.poll();
+        h = handler;
+        notifyAll();
+      }
+      h.handle(item);
+    }
+    Handler<Void> eh;
+    Handler<Throwable> xh;
+    Throwable cause;
+    synchronized (this) {
+      if (done || cancelled || !ended || !buffer.isEmpty()) {
+        return;
+      }
+      cause = failure;
+      eh = endHandler;
+      xh = exceptionHandler;
+      // wait for handler to be set
+      if ((cause == null && eh == null) || (cause != null && xh == null)) {
+        return;
+      }
+      done = true;
+    }
+    if (cause == null) {
+      eh.handle(null);
+    }
+    else {
+      xh.handle(cause);
+    }
+  }
+}
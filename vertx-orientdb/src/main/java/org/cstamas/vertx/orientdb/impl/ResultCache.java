@@ -0,0 +1,273 @@
+package org.cstamas.vertx.orientdb.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
+
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.parser.Node;
+import com.orientechnologies.orient.core.sql.parser.OFromClause;
+import com.orientechnologies.orient.core.sql.parser.OSelectStatement;
+import com.orientechnologies.orient.core.sql.parser.OStatement;
+import org.cstamas.vertx.orientdb.CacheStats;
+
+/**
+ * Bounded cache of query results of a database, keyed by statement text and parameters. Entries expire after TTL, and
+ * are invalidated by class: each class has a generation counter, that is bumped by {@link ResultCacheHook} when a
+ * record of the class (or of it's subclass) is created, updated or deleted. Entries of older generation are treated as
+ * misses, and results computed while class was modified are not stored at all.
+ * <p>
+ * Only simple selects are cached, that target a single class and have no subqueries nor LET clause, as the
+ * invalidation can track only the target class.
+ * <p>
+ * Entries and generations are kept in concurrent maps, so reads and invalidations do not serialize, and the oldest
+ * entries are evicted first once the cache is full. A generation bumped while an entry is stored makes the entry
+ * a miss on next read.
+ * <p>
+ * Documents are mutable, so cache stores copies of result documents, and hands out copies of them on each hit.
+ */
+class ResultCache
+{
+  private static final Pattern CLASS_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+  private static final class Key
+  {
+    private final String sql;
+
+    private final List<Object> args;
+
+    private Key(final String sql, final Object[] args) {
+      this.sql = sql;
+      // copy maps, as caller may reuse them
+      List<Object> copy = new ArrayList<>(args.length);
+      for (Object arg : args) {
+        copy.add(arg instanceof Map ? new HashMap<>((Map<?, ?>) arg) : arg);
+      }
+      this.args = copy;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      return sql.equals(key.sql) && args.equals(key.args);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * sql.hashCode() + args.hashCode();
+    }
+  }
+
+  private static final class Entry
+  {
+    private final List<ODocument> result;
+
+    private final String className;
+
+    private final long generation;
+
+    private final long expiresAt;
+
+    private Entry(final List<ODocument> result, final String className, final long generation, final long expiresAt)
+    {
+      this.result = result;
+      this.className = className;
+      this.generation = generation;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+  private final int maxSize;
+
+  private final long ttl;
+
+  private final ConcurrentHashMap<Key, Entry> entries;
+
+  /**
+   * Keys in order of insertion, the eldest evicted first.
+   */
+  private final ConcurrentLinkedQueue<Key> order;
+
+  private final ConcurrentHashMap<String, AtomicLong> generations;
+
+  private final AtomicLong hits;
+
+  private final AtomicLong misses;
+
+  private final AtomicLong evictions;
+
+  ResultCache(final int maxSize, final long ttl) {
+    this.maxSize = maxSize;
+    this.ttl = ttl;
+    this.entries = new ConcurrentHashMap<>();
+    this.order = new ConcurrentLinkedQueue<>();
+    this.generations = new ConcurrentHashMap<>();
+    this.hits = new AtomicLong(0);
+    this.misses = new AtomicLong(0);
+    this.evictions = new AtomicLong(0);
+  }
+
+  boolean isEnabled() {
+    return maxSize > 0;
+  }
+
+  /**
+   * Returns the name of the class the statement result depends on, or {@code null} if result of statement is not
+   * cacheable.
+   */
+  @Nullable
+  String targetClass(@Nullable final OStatement parsed) {
+    if (!(parsed instanceof OSelectStatement)) {
+      return null;
+    }
+    OSelectStatement select = (OSelectStatement) parsed;
+    OFromClause target = select.getTarget();
+    if (select.getLetClause() != null || target == null || target.getItem() == null
+        || target.getItem().getIdentifier() == null) {
+      return null;
+    }
+    String className = target.getItem().getIdentifier().toString();
+    if (!CLASS_NAME.matcher(className).matches()) {
+      return null;
+    }
+    for (int i = 0; i < select.jjtGetNumChildren(); i++) {
+      if (hasStatement(select.jjtGetChild(i))) {
+        return null;
+      }
+    }
+    return className;
+  }
+
+  /**
+   * Returns {@code true} if node is or contains a statement, like a subquery in projection, target or condition.
+   */
+  private static boolean hasStatement(final Node node) {
+    if (node instanceof OStatement) {
+      return true;
+    }
+    for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+      if (hasStatement(node.jjtGetChild(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the current generation of class, to be passed to {@link #put(String, Object[], String, long, List)}.
+   */
+  long generation(final String className) {
+    return generationOf(className.toLowerCase(Locale.ENGLISH));
+  }
+
+  private long generationOf(final String key) {
+    AtomicLong generation = generations.get(key);
+    return generation != null ? generation.get() : 0L;
+  }
+
+  /**
+   * Returns the cached result, or {@code null} if not cached, expired or invalidated.
+   */
+  @Nullable
+  List<ODocument> get(final String sql, final Object[] args) {
+    if (maxSize > 0) {
+      Key key = new Key(sql, args);
+      Entry entry = entries.get(key);
+      if (entry != null) {
+        if (isValid(entry, System.currentTimeMillis())) {
+          hits.incrementAndGet();
+          return copy(entry.result);
+        }
+        if (entries.remove(key, entry)) {
+          evictions.incrementAndGet();
+        }
+      }
+    }
+    misses.incrementAndGet();
+    return null;
+  }
+
+  /**
+   * Stores copy of the result, unless class was modified since {@code generation} was taken.
+   */
+  void put(final String sql,
+           final Object[] args,
+           final String className,
+           final long generation,
+           final List<ODocument> result)
+  {
+    String lowerName = className.toLowerCase(Locale.ENGLISH);
+    if (maxSize > 0 && generation == generationOf(lowerName)) {
+      Key key = new Key(sql, args);
+      Entry entry = new Entry(copy(result), lowerName, generation, System.currentTimeMillis() + ttl);
+      if (entries.put(key, entry) == null) {
+        order.add(key);
+        while (entries.size() > maxSize) {
+          Key eldest = order.poll();
+          if (eldest == null) {
+            break;
+          }
+          if (entries.remove(eldest) != null) {
+            evictions.incrementAndGet();
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Invalidates all cached results of class.
+   */
+  void invalidate(final String className) {
+    generations.computeIfAbsent(className.toLowerCase(Locale.ENGLISH), k -> new AtomicLong(0)).incrementAndGet();
+  }
+
+  /**
+   * Invalidates all cached results of class and of it's superclasses, as queries are polymorphic.
+   */
+  void invalidate(final OClass clazz) {
+    invalidate(clazz.getName());
+    clazz.getAllSuperClasses().forEach(superClass -> invalidate(superClass.getName()));
+  }
+
+  private boolean isValid(final Entry entry, final long now) {
+    return entry.expiresAt > now && entry.generation == generationOf(entry.className);
+  }
+
+  private static List<ODocument> copy(final List<ODocument> documents) {
+    List<ODocument> copy = new ArrayList<>(documents.size());
+    for (ODocument document : documents) {
+      copy.add(document.copy());
+    }
+    return copy;
+  }
+
+  CacheStats stats() {
+    int size = 0;
+    long now = System.currentTimeMillis();
+    for (Map.Entry<Key, Entry> entry : entries.entrySet()) {
+      if (isValid(entry.getValue(), now)) {
+        size++;
+      }
+      else if (entries.remove(entry.getKey(), entry.getValue())) {
+        evictions.incrementAndGet();
+      }
+    }
+    return new CacheStats(size, hits.get(), misses.get(), evictions.get());
+  }
+}
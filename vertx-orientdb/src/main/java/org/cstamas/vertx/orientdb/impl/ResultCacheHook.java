@@ -0,0 +1,76 @@
+package org.cstamas.vertx.orientdb.impl;
+
+import com.orientechnologies.orient.core.db.ODatabaseInternal;
+import com.orientechnologies.orient.core.db.ODatabaseLifecycleListener;
+import com.orientechnologies.orient.core.db.ODatabaseLifecycleListenerAbstract;
+import com.orientechnologies.orient.core.hook.ORecordHook;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.record.ORecord;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Record hook invalidating {@link ResultCache} by class of created, updated and deleted documents, and all of it's
+ * superclasses, as queries are polymorphic. The hook is registered on each connection opened to the database URI, by
+ * the {@link ODatabaseLifecycleListener} returned by {@link #lifecycleListener()}.
+ */
+class ResultCacheHook
+    implements ORecordHook
+{
+  private final String uri;
+
+  private final ResultCache resultCache;
+
+  ResultCacheHook(final String uri, final ResultCache resultCache) {
+    this.uri = requireNonNull(uri);
+    this.resultCache = requireNonNull(resultCache);
+  }
+
+  ODatabaseLifecycleListener lifecycleListener() {
+    return new ODatabaseLifecycleListenerAbstract()
+    {
+      @Override
+      public void onCreate(final ODatabaseInternal db) {
+        register(db);
+      }
+
+      @Override
+      public void onOpen(final ODatabaseInternal db) {
+        register(db);
+      }
+    };
+  }
+
+  private void register(final ODatabaseInternal db) {
+    if (uri.equals(db.getURL()) && !db.getHooks().containsKey(this)) {
+      db.registerHook(this);
+    }
+  }
+
+  @Override
+  public DISTRIBUTED_EXECUTION_MODE getDistributedExecutionMode() {
+    return DISTRIBUTED_EXECUTION_MODE.BOTH;
+  }
+
+  @Override
+  public void onUnregister() {
+    // nop
+  }
+
+  @Override
+  public RESULT onTrigger(final TYPE type, final ORecord record) {
+    if (record instanceof ODocument
+        && (type == TYPE.AFTER_CREATE || type == TYPE.AFTER_UPDATE || type == TYPE.AFTER_DELETE)) {
+      invalidate((ODocument) record);
+    }
+    return RESULT.RECORD_NOT_CHANGED;
+  }
+
+  private void invalidate(final ODocument document) {
+    OClass clazz = document.getSchemaClass();
+    if (clazz != null) {
+      resultCache.invalidate(clazz);
+    }
+  }
+}
@@ -0,0 +1,256 @@
+package org.cstamas.vertx.orientdb.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+import com.orientechnologies.common.concur.OOfflineNodeException;
+import com.orientechnologies.common.io.OIOException;
+import com.orientechnologies.orient.core.db.OPartitionedDatabasePool;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.metadata.security.OUser;
+import io.vertx.core.Vertx;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import org.cstamas.vertx.orientdb.ConnectionOptions;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Servers serving the same database, each with it's own pool. Connections are acquired from the available server
+ * with least operations in flight (ties broken by probe latency), failing over to next server if acquire fails.
+ * <p>
+ * Each server has a circuit breaker: a server failing to hand out connection, failing an operation with network
+ * error, failing a probe or having probe latency above threshold is opened (taken out of routing) for the breaker
+ * timeout. Servers are probed periodically in background, but an open server is probed only after it's timeout
+ * elapsed, and is closed (put back into routing) once a probe succeeds below latency threshold. If all servers are
+ * open, those with elapsed timeout are tried, and if there are none, acquire fails fast.
+ */
+class ServerNodes
+{
+  private static final Logger log = LoggerFactory.getLogger(ServerNodes.class);
+
+  /**
+   * A server and it's state.
+   */
+  static class Node
+  {
+    final String uri;
+
+    final OPartitionedDatabasePool pool;
+
+    final AtomicInteger inFlight;
+
+    final AtomicBoolean probing;
+
+    /**
+     * Smoothed probe latency in nanoseconds.
+     */
+    volatile long latency;
+
+    /**
+     * The time (in {@link System#nanoTime()}) the breaker times out, or zero if breaker is closed.
+     */
+    volatile long openUntil;
+
+    Node(final String uri, final OPartitionedDatabasePool pool) {
+      this.uri = requireNonNull(uri);
+      this.pool = requireNonNull(pool);
+      this.inFlight = new AtomicInteger(0);
+      this.probing = new AtomicBoolean(false);
+    }
+  }
+
+  /**
+   * Connection acquired from a server, the {@link #release()} must be invoked after connection is closed.
+   */
+  static class Lease
+  {
+    final Node node;
+
+    final ODatabaseDocumentTx db;
+
+    private Lease(final Node node, final ODatabaseDocumentTx db) {
+      this.node = node;
+      this.db = db;
+    }
+
+    void release() {
+      node.inFlight.decrementAndGet();
+    }
+  }
+
+  private final Vertx vertx;
+
+  private final String name;
+
+  private final List<Node> nodes;
+
+  private final long healthCheckInterval;
+
+  private final long latencyThreshold;
+
+  private final long breakerTimeout;
+
+  private long timerId;
+
+  /**
+   * Creates server nodes, with {@code primaryPool} for primary URI, and new pools for server URIs of options. Only the
+   * latter are closed by {@link #close()}.
+   */
+  ServerNodes(final Vertx vertx, final OPartitionedDatabasePool primaryPool, final ConnectionOptions options) {
+    this.vertx = requireNonNull(vertx);
+    this.name = options.name();
+    List<Node> nodes = new ArrayList<>();
+    nodes.add(new Node(options.uri(), primaryPool));
+    for (String serverUri : options.serverUris()) {
+      nodes.add(new Node(serverUri, new OPartitionedDatabasePool(
+          serverUri,
+          options.username(),
+          options.password(),
+          options.maxPartitionSize(),
+          options.maxPoolSize()
+      )));
+    }
+    this.nodes = Collections.unmodifiableList(nodes);
+    this.healthCheckInterval = options.healthCheckInterval();
+    this.latencyThreshold = TimeUnit.MILLISECONDS.toNanos(options.latencyThreshold());
+    this.breakerTimeout = TimeUnit.MILLISECONDS.toNanos(options.breakerTimeout());
+    this.timerId = -1L;
+  }
+
+  /**
+   * Returns the pools of all servers, primary first.
+   */
+  List<OPartitionedDatabasePool> pools() {
+    List<OPartitionedDatabasePool> pools = new ArrayList<>(nodes.size());
+    nodes.forEach(node -> pools.add(node.pool));
+    return pools;
+  }
+
+  /**
+   * Starts periodic probes.
+   */
+  void start() {
+    timerId = vertx.setPeriodic(healthCheckInterval, id -> nodes.forEach(this::probe));
+  }
+
+  /**
+   * Stops probes and closes pools of server URIs.
+   */
+  void close() {
+    if (timerId != -1L) {
+      vertx.cancelTimer(timerId);
+    }
+    nodes.subList(1, nodes.size()).forEach(node -> node.pool.close());
+  }
+
+  /**
+   * Acquires connection from least loaded available server, failing over to other servers.
+   */
+  Lease acquire() {
+    Exception failure = null;
+    for (int i = 0; i < nodes.size(); i++) {
+      Node node = select();
+      if (node == null) {
+        break;
+      }
+      node.inFlight.incrementAndGet();
+      try {
+        return new Lease(node, node.pool.acquire());
+      }
+      catch (Exception e) {
+        node.inFlight.decrementAndGet();
+        open(node, "acquire failed", e);
+        failure = e;
+      }
+    }
+    throw new IllegalStateException("No available server of database: " + name, failure);
+  }
+
+  /**
+   * Reports operation failure of given lease, opening breaker of it's server on network errors.
+   */
+  void failed(final Lease lease, final Throwable failure) {
+    for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+      if (cause instanceof OIOException || cause instanceof OOfflineNodeException) {
+        open(lease.node, "network failure", failure);
+        return;
+      }
+    }
+  }
+
+  private Node select() {
+    long now = System.nanoTime();
+    Node selected = null;
+    boolean selectedClosed = false;
+    for (Node node : nodes) {
+      long openUntil = node.openUntil;
+      boolean closed = openUntil == 0L;
+      if (!closed && openUntil - now > 0) {
+        continue;
+      }
+      if (selected == null
+          || (closed && !selectedClosed)
+          || (closed == selectedClosed && isLessLoaded(node, selected))) {
+        selected = node;
+        selectedClosed = closed;
+      }
+    }
+    return selected;
+  }
+
+  private static boolean isLessLoaded(final Node node, final Node other) {
+    int inFlight = node.inFlight.get();
+    int otherInFlight = other.inFlight.get();
+    return inFlight < otherInFlight || (inFlight == otherInFlight && node.latency < other.latency);
+  }
+
+  private void probe(final Node node) {
+    long openUntil = node.openUntil;
+    if ((openUntil != 0L && openUntil - System.nanoTime() > 0) || !node.probing.compareAndSet(false, true)) {
+      return;
+    }
+    vertx.<Long>executeBlocking(
+        f -> {
+          long start = System.nanoTime();
+          try (ODatabaseDocumentTx db = node.pool.acquire()) {
+            db.countClass(OUser.CLASS_NAME);
+            f.complete(System.nanoTime() - start);
+          }
+          catch (Exception e) {
+            f.fail(e);
+          }
+        },
+        false,
+        r -> {
+          node.probing.set(false);
+          if (r.failed()) {
+            open(node, "probe failed", r.cause());
+          }
+          else {
+            long latency = r.result();
+            node.latency = node.latency == 0L ? latency : (node.latency * 7 + latency) / 8;
+            if (latency > latencyThreshold) {
+              open(node, "probe latency " + TimeUnit.NANOSECONDS.toMillis(latency) + "ms", null);
+            }
+            else if (node.openUntil != 0L) {
+              node.openUntil = 0L;
+              log.info("Server " + node.uri + " of " + name + " available");
+            }
+          }
+        }
+    );
+  }
+
+  private void open(final Node node, final String reason, @Nullable final Throwable cause) {
+    long openUntil = System.nanoTime() + breakerTimeout;
+    node.openUntil = openUntil == 0L ? 1L : openUntil;
+    log.warn("Server " + node.uri + " of " + name + " unavailable: " + reason, cause);
+  }
+}
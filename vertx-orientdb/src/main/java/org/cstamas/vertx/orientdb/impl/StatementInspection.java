@@ -0,0 +1,119 @@
+package org.cstamas.vertx.orientdb.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.sql.OCommandSQLParsingException;
+import com.orientechnologies.orient.core.sql.parser.OStatement;
+import com.orientechnologies.orient.core.sql.parser.OStatementCache;
+import org.cstamas.vertx.orientdb.CacheStats;
+
+/**
+ * Bounded cache of inspected SQL statements of a database, keyed by statement text. Query results are cached only if
+ * they depend on a single class (see {@link ResultCache}), and telling that needs the parsed statement, so each
+ * distinct statement is parsed once for inspection. OrientDB 2.2 cannot execute a parsed statement, and parses the
+ * text again on execution, hence statements are inspected only if result cache is enabled.
+ * <p>
+ * Inspections are kept in a concurrent map, and the oldest ones are evicted first once the cache is full.
+ */
+class StatementInspection
+{
+  /**
+   * An inspected statement, immutable and shareable across threads.
+   */
+  static final class Statement
+  {
+    private final String text;
+
+    @Nullable
+    private final OStatement parsed;
+
+    private Statement(final String text, @Nullable final OStatement parsed) {
+      this.text = text;
+      this.parsed = parsed;
+    }
+
+    String text() {
+      return text;
+    }
+
+    /**
+     * The parsed statement, or {@code null} if statement is not parseable by strict SQL parser (but may still be
+     * valid for legacy parser of OrientDB).
+     */
+    @Nullable
+    OStatement parsed() {
+      return parsed;
+    }
+  }
+
+  private final int maxSize;
+
+  private final ConcurrentHashMap<String, Statement> statements;
+
+  /**
+   * Statement texts in order of insertion, the eldest evicted first.
+   */
+  private final ConcurrentLinkedQueue<String> order;
+
+  private final AtomicLong hits;
+
+  private final AtomicLong misses;
+
+  private final AtomicLong evictions;
+
+  StatementInspection(final int maxSize) {
+    this.maxSize = maxSize;
+    this.statements = new ConcurrentHashMap<>();
+    this.order = new ConcurrentLinkedQueue<>();
+    this.hits = new AtomicLong(0);
+    this.misses = new AtomicLong(0);
+    this.evictions = new AtomicLong(0);
+  }
+
+  /**
+   * Returns the inspected statement for given text, parsing it if not cached. Must be invoked with database active on
+   * current thread.
+   */
+  Statement get(final String text, final ODatabaseDocumentTx db) {
+    Statement statement = statements.get(text);
+    if (statement != null) {
+      hits.incrementAndGet();
+      return statement;
+    }
+    misses.incrementAndGet();
+    statement = new Statement(text, parse(text, db));
+    if (maxSize > 0 && statements.putIfAbsent(text, statement) == null) {
+      order.add(text);
+      while (statements.size() > maxSize) {
+        String eldest = order.poll();
+        if (eldest == null) {
+          break;
+        }
+        if (statements.remove(eldest) != null) {
+          evictions.incrementAndGet();
+        }
+      }
+    }
+    return statement;
+  }
+
+  CacheStats stats() {
+    return new CacheStats(statements.size(), hits.get(), misses.get(), evictions.get());
+  }
+
+  @Nullable
+  private static OStatement parse(final String text, final ODatabaseDocumentTx db) {
+    try {
+      return OStatementCache.get(text, db);
+    }
+    catch (OCommandSQLParsingException e) {
+      // leave it to legacy parser, that will fail if statement is really invalid
+      return null;
+    }
+  }
+}
@@ -0,0 +1,149 @@
+package org.cstamas.vertx.orientdb.impl;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.orientechnologies.orient.core.db.OPartitionedDatabasePool;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.index.OIndex;
+import com.orientechnologies.orient.core.index.OIndexKeyCursor;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import io.vertx.core.WorkerExecutor;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import org.cstamas.vertx.orientdb.ConnectionOptions;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Warms up created database before it is registered: pre-opens connections of pools, by acquiring them concurrently
+ * on distinct workers of the executor that will use the pool (pool partitions are per thread), and reads through
+ * indexes and classes to have them in disk cache. Failures are logged, as cold database is still usable.
+ * <p>
+ * Methods are blocking, and must not be invoked on workers of the database.
+ */
+class WarmUp
+{
+  private static final Logger log = LoggerFactory.getLogger(WarmUp.class);
+
+  private static final long TIMEOUT = 30L;
+
+  private final DatabaseHandle handle;
+
+  private final ConnectionOptions options;
+
+  WarmUp(final DatabaseHandle handle, final ConnectionOptions options) {
+    this.handle = requireNonNull(handle);
+    this.options = requireNonNull(options);
+  }
+
+  /**
+   * Performs the warm up, returns the time spent in nanoseconds.
+   */
+  long run() throws InterruptedException {
+    long start = System.nanoTime();
+    List<OPartitionedDatabasePool> pools = handle.serverNodes != null ?
+        handle.serverNodes.pools() : Collections.singletonList(handle.databasePool);
+    if (options.warmUpConnections() > 0) {
+      int workers = options.workerPoolSize();
+      for (OPartitionedDatabasePool pool : pools) {
+        openConnections(pool, handle.workerExecutor, Math.min(options.warmUpConnections(), workers));
+      }
+      int readWorkers = Math.min(workers, options.readMaxPoolSize() * handle.readPools.size());
+      for (OPartitionedDatabasePool pool : handle.readPools) {
+        openConnections(pool, handle.readWorkerExecutor, Math.min(options.warmUpConnections(), readWorkers));
+      }
+    }
+    if (!options.warmUpIndexes().isEmpty() || !options.warmUpClasses().isEmpty()) {
+      // disk cache is per storage, so read through once per distinct URI
+      Map<String, OPartitionedDatabasePool> storages = new LinkedHashMap<>();
+      pools.forEach(pool -> storages.putIfAbsent(pool.getUrl(), pool));
+      handle.readPools.forEach(pool -> storages.putIfAbsent(pool.getUrl(), pool));
+      for (OPartitionedDatabasePool pool : storages.values()) {
+        try (ODatabaseDocumentTx db = pool.acquire()) {
+          options.warmUpIndexes().forEach(indexName -> readIndex(db, indexName));
+          options.warmUpClasses().forEach(className -> readClass(db, className));
+        }
+        catch (Exception e) {
+          log.warn("Warm-up: Could not read through " + handle.name + " -> " + pool.getUrl(), e);
+        }
+      }
+    }
+    return System.nanoTime() - start;
+  }
+
+  /**
+   * Acquires {@code count} connections concurrently on workers of executor, holding each until all are acquired, so
+   * every acquisition happens on distinct worker, and count must not exceed the worker count.
+   */
+  private void openConnections(final OPartitionedDatabasePool pool, final WorkerExecutor executor, final int count)
+      throws InterruptedException
+  {
+    CountDownLatch acquired = new CountDownLatch(count);
+    CountDownLatch done = new CountDownLatch(count);
+    for (int i = 0; i < count; i++) {
+      executor.<Void>executeBlocking(
+          f -> {
+            ODatabaseDocumentTx db = null;
+            try {
+              db = pool.acquire();
+            }
+            catch (Exception e) {
+              log.warn("Warm-up: Could not open connection of " + handle.name + " -> " + pool.getUrl(), e);
+            }
+            finally {
+              acquired.countDown();
+            }
+            try {
+              acquired.await(TIMEOUT, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+            finally {
+              if (db != null) {
+                db.close();
+              }
+              done.countDown();
+            }
+            f.complete();
+          },
+          false,
+          r -> {}
+      );
+    }
+    if (!done.await(TIMEOUT * 2, TimeUnit.SECONDS)) {
+      log.warn("Warm-up: Timed out opening connections of " + handle.name + " -> " + pool.getUrl());
+    }
+  }
+
+  private void readIndex(final ODatabaseDocumentTx db, final String indexName) {
+    OIndex<?> index = db.getMetadata().getIndexManager().getIndex(indexName);
+    if (index == null) {
+      log.warn("Warm-up: Non existent index " + indexName + " of " + handle.name);
+      return;
+    }
+    long keys = 0;
+    OIndexKeyCursor cursor = index.keyCursor();
+    while (cursor.next(-1) != null) {
+      keys++;
+    }
+    log.debug("Warm-up: Read " + keys + " keys of index " + indexName + " of " + handle.name);
+  }
+
+  private void readClass(final ODatabaseDocumentTx db, final String className) {
+    if (!db.getMetadata().getSchema().existsClass(className)) {
+      log.warn("Warm-up: Non existent class " + className + " of " + handle.name);
+      return;
+    }
+    long records = 0;
+    for (ODocument ignored : db.browseClass(className)) {
+      records++;
+    }
+    log.debug("Warm-up: Read " + records + " records of class " + className + " of " + handle.name);
+  }
+}